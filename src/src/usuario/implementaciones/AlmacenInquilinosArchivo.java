@@ -0,0 +1,121 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IAlmacenInquilinos;
+import usuario.interfaces.IHashPassword;
+import usuario.interfaces.IListadoUsuarios;
+import usuario.interfaces.IRepositorioUsuario;
+import usuario.modelo.Rol;
+import usuario.modelo.Usuario;
+import usuario.modelo.roles.CatalogoRoles;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Almacén de inquilinos en archivos - PRINCIPIOS DIP y SRP
+ * Un archivo por inquilino, una línea por usuario con los campos
+ * id, nombre, email, password y rol separados por tabulador.
+ * Se escribe en un archivo temporal y luego se reemplaza el original,
+ * así un fallo a mitad de escritura no deja datos incompletos.
+ * Las contraseñas nunca llegan al disco en texto plano: las que aún no
+ * están hasheadas se hashean al escribirlas.
+ */
+public class AlmacenInquilinosArchivo implements IAlmacenInquilinos {
+
+    private Path directorio;    // Carpeta donde se guarda un archivo por inquilino
+    private IHashPassword hash; // Para no escribir contraseñas en texto plano
+
+    public AlmacenInquilinosArchivo(Path directorio, IHashPassword hash) throws IOException {
+        this.directorio = Files.createDirectories(directorio);
+        this.hash = hash;
+    }
+
+    @Override
+    public void cargar(String inquilino, IRepositorioUsuario destino) throws IOException {
+        Path archivo = archivoDe(inquilino);
+        if (!Files.exists(archivo)) {
+            return;    // Inquilino nuevo, sin usuarios guardados
+        }
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                String[] campos = linea.split("\t", -1);
+                Rol rol = campos.length == 5 ? CatalogoRoles.buscar(desescapar(campos[4])) : null;
+                if (rol == null) {
+                    throw new IOException(String.format("Línea inválida en %s", archivo));
+                }
+                destino.guardar(new Usuario(desescapar(campos[0]), desescapar(campos[1]),
+                        desescapar(campos[2]), desescapar(campos[3]), rol));
+            }
+        }
+    }
+
+    @Override
+    public void guardar(String inquilino, IListadoUsuarios origen) throws IOException {
+        Path archivo = archivoDe(inquilino);
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+
+        try (BufferedWriter escritor = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            origen.recorrer().forEachRemaining(usuario -> {
+                try {
+                    escritor.write(escapar(usuario.getId()) + '\t' + escapar(usuario.getNombre()) + '\t'
+                            + escapar(usuario.getEmail()) + '\t' + escapar(passwordAlmacenable(usuario)) + '\t'
+                            + escapar(CatalogoRoles.codigoDe(usuario.getRol())));
+                    escritor.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Contraseña tal como se escribe en el archivo (siempre hasheada)
+     */
+    private String passwordAlmacenable(Usuario usuario) throws IOException {
+        String password = usuario.getPassword();
+        if (password == null) {
+            throw new IOException("El usuario " + usuario.getEmail() + " no tiene contraseña");
+        }
+        return hash.esHash(password) ? password : hash.generar(password);
+    }
+
+    /**
+     * Archivo del inquilino; el id se valida para no salir del directorio
+     */
+    private Path archivoDe(String inquilino) {
+        if (!inquilino.matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("Identificador de inquilino inválido: " + inquilino);
+        }
+        return directorio.resolve(inquilino + ".usuarios");
+    }
+
+    private static String escapar(String valor) {
+        return valor.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String desescapar(String valor) {
+        if (valor.indexOf('\\') < 0) {
+            return valor;
+        }
+        StringBuilder resultado = new StringBuilder(valor.length());
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '\\' && i + 1 < valor.length()) {
+                char siguiente = valor.charAt(++i);
+                resultado.append(siguiente == 't' ? '\t' : siguiente == 'n' ? '\n' : siguiente == 'r' ? '\r' : siguiente);
+            } else {
+                resultado.append(c);
+            }
+        }
+        return resultado.toString();
+    }
+}
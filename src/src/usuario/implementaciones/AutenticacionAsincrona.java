@@ -0,0 +1,34 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IAutenticacion;
+import usuario.interfaces.IAutenticacionAsync;
+import usuario.modelo.Usuario;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Adaptador síncrono -> asíncrono de autenticación - PRINCIPIOS DIP y OCP
+ * Ejecuta una IAutenticacion bloqueante en el Executor indicado,
+ * liberando al hilo que hace la llamada
+ */
+public class AutenticacionAsincrona implements IAutenticacionAsync {
+
+    private IAutenticacion autenticacion;    // Implementación bloqueante adaptada
+    private Executor executor;               // Hilos donde se ejecutan las llamadas bloqueantes
+
+    public AutenticacionAsincrona(IAutenticacion autenticacion, Executor executor) {
+        this.autenticacion = autenticacion;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> autenticar(String email, String password) {
+        return CompletableFuture.supplyAsync(() -> autenticacion.autenticar(email, password), executor);
+    }
+
+    @Override
+    public CompletableFuture<Usuario> obtenerUsuarioActual() {
+        // Solo lee el estado de la sesión en memoria, no hace falta cambiar de hilo
+        return CompletableFuture.completedFuture(autenticacion.obtenerUsuarioActual());
+    }
+}
@@ -1,6 +1,7 @@
 package usuario.implementaciones;
 
 import usuario.interfaces.IAutenticacion;
+import usuario.interfaces.IHashPassword;
 import usuario.interfaces.IRepositorioUsuario;
 import usuario.modelo.Usuario;
 
@@ -9,8 +10,9 @@ import usuario.modelo.Usuario;
  */
 public class AutenticacionBasica implements IAutenticacion {
 
-    // Dependencia inyectada (DIP)
+    // Dependencias inyectadas (DIP)
     private IRepositorioUsuario repositorio;
+    private IHashPassword hash;    // null = contraseñas guardadas en texto plano
     // Usuario actualmente logueado
     private Usuario usuarioActual;
 
@@ -21,13 +23,32 @@ public class AutenticacionBasica implements IAutenticacion {
         this.repositorio = repositorio;  // Asigna la dependencia inyectada
     }
 
+    /**
+     * Constructor con contraseñas hasheadas
+     * Al autenticar con un hash desactualizado (o texto plano) se vuelve a generar
+     * con el costo actual, de forma transparente para el usuario
+     */
+    public AutenticacionBasica(IRepositorioUsuario repositorio, IHashPassword hash) {
+        this(repositorio);
+        this.hash = hash;                // Asigna el esquema de hash
+    }
+
     @Override
     public boolean autenticar(String email, String password) {
         // Busca el usuario por email usando el repositorio
         Usuario usuario = repositorio.buscarPorEmail(email);
 
         // Verifica que el usuario existe Y que la contraseña coincide
-        if (usuario != null && usuario.getPassword().equals(password)) {
+        if (usuario != null && passwordCorrecta(usuario, password)) {
+            // Se conoce la contraseña: se aprovecha para generar un hash nuevo con el costo actual
+            if (hash != null && hash.requiereActualizacion(usuario.getPassword())) {
+                Usuario actualizado = new Usuario(usuario.getId(), usuario.getNombre(), usuario.getEmail(),
+                        hash.generar(password), usuario.getRol());
+                // Solo si nadie cambió la cuenta mientras tanto (ej: un cambio de contraseña)
+                if (repositorio.reemplazar(usuario, actualizado)) {
+                    usuario = actualizado;
+                }
+            }
             this.usuarioActual = usuario;    // Guarda el usuario autenticado
             return true;                     // Autenticación exitosa
         }
@@ -38,4 +59,10 @@ public class AutenticacionBasica implements IAutenticacion {
     public Usuario obtenerUsuarioActual() {
         return usuarioActual;    // Retorna el usuario logueado o null
     }
-}
\ No newline at end of file
+
+    private boolean passwordCorrecta(Usuario usuario, String password) {
+        return hash != null
+                ? hash.verificar(password, usuario.getPassword())
+                : usuario.getPassword().equals(password);
+    }
+}
@@ -0,0 +1,29 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IAutenticacion;
+import usuario.interfaces.IAutenticacionAsync;
+import usuario.modelo.Usuario;
+
+/**
+ * Adaptador asíncrono -> síncrono de autenticación - PRINCIPIOS DIP y LSP
+ * Permite usar una IAutenticacionAsync donde se espera una IAutenticacion
+ * (ej: en ServicioControlUsuarios), esperando cada resultado
+ */
+public class AutenticacionSincrona implements IAutenticacion {
+
+    private IAutenticacionAsync autenticacion;    // Implementación asíncrona adaptada
+
+    public AutenticacionSincrona(IAutenticacionAsync autenticacion) {
+        this.autenticacion = autenticacion;
+    }
+
+    @Override
+    public boolean autenticar(String email, String password) {
+        return Futuros.esperar(autenticacion.autenticar(email, password));
+    }
+
+    @Override
+    public Usuario obtenerUsuarioActual() {
+        return Futuros.esperar(autenticacion.obtenerUsuarioActual());
+    }
+}
@@ -0,0 +1,40 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IAutenticacion;
+import usuario.modelo.Usuario;
+
+/**
+ * Autenticación con tokens firmados - PRINCIPIOS OCP y DIP
+ * OCP: Nueva forma de autenticación sin modificar las existentes
+ * A diferencia de AutenticacionOAuth, no consulta el repositorio:
+ * los datos de la sesión viajan firmados dentro del token
+ */
+public class AutenticacionToken implements IAutenticacion {
+
+    // Motor que emite y verifica los tokens
+    private MotorTokens motor;
+    // Usuario de la sesión actual
+    private Usuario usuarioActual;
+
+    public AutenticacionToken(MotorTokens motor) {
+        this.motor = motor;
+    }
+
+    @Override
+    public boolean autenticar(String email, String token) {
+        // Verificación solo de CPU: firma, expiración y revocación
+        MotorTokens.SesionToken sesion = motor.verificar(token);
+
+        // El token debe pertenecer al email indicado
+        if (sesion != null && sesion.getUsuario().getEmail().equals(email)) {
+            this.usuarioActual = sesion.getUsuario();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Usuario obtenerUsuarioActual() {
+        return usuarioActual;
+    }
+}
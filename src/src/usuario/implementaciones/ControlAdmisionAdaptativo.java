@@ -0,0 +1,322 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IControlAdmision;
+import usuario.interfaces.SobrecargaException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Control de admisión adaptativo - PRINCIPIOS SRP y OCP
+ * SRP: Solo decide cuántas operaciones de cada clase se ejecutan a la vez
+ * OCP: Se inyecta en el servicio sin modificar sus reglas de negocio
+ *
+ * Cada clase de operación tiene su propio límite de concurrencia, ajustado con
+ * AIMD a partir de la latencia observada: en cada ventana se compara la latencia
+ * media con la mejor latencia conocida; si se degrada el límite baja un 10%
+ * (y, si son las lecturas, también el de las clases de menor prioridad), y si
+ * la ventana estuvo sana y el límite se usó, sube en uno. Una clase tampoco
+ * crece mientras otra de mayor prioridad esté rechazando operaciones. Las
+ * ventanas sanas de las lecturas devuelven a las demás clases, de a uno, la
+ * capacidad que se les quitó (hasta su límite inicial), aunque tengan poco tráfico.
+ * Si una clase no junta suficientes muestras en una ventana, se acumulan con las
+ * de las ventanas siguientes.
+ *
+ * Solo las lecturas pueden esperar unos milisegundos en cola cuando su límite
+ * está completo; las demás clases se rechazan de inmediato. Mientras haya
+ * lecturas esperando, las operaciones de menor prioridad también se rechazan
+ * de inmediato. Ninguna operación espera más que el máximo de su clase:
+ * pasado ese tiempo se lanza SobrecargaException. Cuando el límite sube, se
+ * despierta a quien espera en la cola sin aguardar a que otra operación salga.
+ */
+public class ControlAdmisionAdaptativo implements IControlAdmision {
+
+    private static final Logger logger = Logger.getLogger(ControlAdmisionAdaptativo.class.getName());
+
+    private static final int MIN_MUESTRAS = 16;          // Muestras para evaluar una ventana
+    private static final long HOLGURA_NANOS = 50_000;    // Diferencias menores se consideran ruido
+    private static final double REDUCCION = 0.9;         // Factor de la disminución multiplicativa
+
+    private final long ventanaNanos;      // Duración de cada ventana de medición
+    private final double tolerancia;      // Degradación admitida respecto de la mejor latencia
+    private final Limitador[] limitadores = new Limitador[Clase.values().length];
+
+    /**
+     * Control con ventanas de 100 ms y tolerancia del doble de la mejor latencia
+     */
+    public ControlAdmisionAdaptativo() {
+        this(Duration.ofMillis(100), 2.0);
+    }
+
+    /**
+     * @param ventana - Cada cuánto se reevalúan los límites
+     * @param tolerancia - Cuántas veces la mejor latencia se acepta antes de reducir el límite
+     */
+    public ControlAdmisionAdaptativo(Duration ventana, double tolerancia) {
+        if (tolerancia <= 1) {
+            throw new IllegalArgumentException("La tolerancia debe ser mayor que 1");
+        }
+        this.ventanaNanos = ventana.toNanos();
+        this.tolerancia = tolerancia;
+
+        // Límite inicial, mínimo y máximo, espera en cola y largo de cola de cada clase
+        limitadores[Clase.LECTURA.ordinal()] = new Limitador(Clase.LECTURA, 64, 8, 1024, Duration.ofMillis(5), 1024);
+        limitadores[Clase.USUARIO.ordinal()] = new Limitador(Clase.USUARIO, 16, 2, 256, Duration.ZERO, 0);
+        limitadores[Clase.ADMIN.ordinal()] = new Limitador(Clase.ADMIN, 4, 1, 64, Duration.ZERO, 0);
+    }
+
+    @Override
+    public long entrar(Clase clase) {
+        return entrar(clase, true);
+    }
+
+    @Override
+    public long intentarEntrar(Clase clase) {
+        return entrar(clase, false);
+    }
+
+    private long entrar(Clase clase, boolean puedeEsperar) {
+        Limitador limitador = limitadores[clase.ordinal()];
+
+        // Prioridad: si una clase más importante está esperando, no se le quita capacidad
+        for (int i = 0; i < clase.ordinal(); i++) {
+            if (limitadores[i].esperando.get() > 0) {
+                throw limitador.rechazar("hay operaciones de mayor prioridad en espera");
+            }
+        }
+
+        if (!limitador.adquirir(puedeEsperar)) {
+            throw limitador.rechazar(String.format("límite de %d operaciones alcanzado", limitador.limite.get()));
+        }
+        return System.nanoTime();
+    }
+
+    @Override
+    public void salir(Clase clase, long entrada) {
+        Limitador limitador = limitadores[clase.ordinal()];
+        limitador.liberar();
+        if (limitador.registrar(System.nanoTime() - entrada)) {
+            evaluar(limitador);
+        }
+    }
+
+    /**
+     * Límite de concurrencia actual de una clase
+     */
+    public int getLimite(Clase clase) {
+        return limitadores[clase.ordinal()].limite.get();
+    }
+
+    /**
+     * Operaciones de una clase rechazadas desde que se creó el control
+     */
+    public long getRechazadas(Clase clase) {
+        return limitadores[clase.ordinal()].rechazadas.sum();
+    }
+
+    /**
+     * Cierra la ventana de un limitador y ajusta los límites (AIMD)
+     */
+    private void evaluar(Limitador limitador) {
+        if (limitador.muestras.sum() < MIN_MUESTRAS) {
+            return;    // Muy pocas operaciones: se siguen acumulando en la próxima ventana
+        }
+        long muestras = limitador.muestras.sumThenReset();
+        long suma = limitador.sumaLatencias.sumThenReset();
+        int pico = limitador.pico.getAndSet(limitador.enCurso.get());
+
+        long media = suma / muestras;
+        long base = limitador.latenciaBase;
+        if (presionSuperior(limitador.clase)) {
+            // Una clase más importante se está quedando sin capacidad: se le cede la nuestra
+            limitador.reducir();
+        } else if (media > base * tolerancia && media - base > HOLGURA_NANOS) {
+            // Latencia degradada: disminución multiplicativa
+            limitador.reducir();
+            if (limitador.clase == Clase.LECTURA) {
+                // Las operaciones costosas compiten por la misma CPU: se les quita capacidad primero
+                for (int i = Clase.LECTURA.ordinal() + 1; i < limitadores.length; i++) {
+                    limitadores[i].reducir();
+                }
+            }
+        } else {
+            // Ventana sana: la base sigue lentamente a la latencia real (puede mejorar o empeorar)
+            limitador.latenciaBase = media < base ? media : base + (media - base) / 16;
+            if (pico * 2 >= limitador.limite.get()) {
+                limitador.aumentar();    // Aumento aditivo solo si el límite se estaba usando
+            }
+            if (limitador.clase == Clase.LECTURA && !presionSuperior(Clase.USUARIO)) {
+                // Las lecturas están sanas y sin rechazos: se devuelve lo quitado a las demás clases
+                for (int i = Clase.LECTURA.ordinal() + 1; i < limitadores.length; i++) {
+                    limitadores[i].recuperar();
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si alguna clase de mayor prioridad rechazó operaciones en la última ventana
+     */
+    private boolean presionSuperior(Clase clase) {
+        long desde = System.nanoTime() - ventanaNanos;
+        for (int i = 0; i < clase.ordinal(); i++) {
+            if (limitadores[i].ultimoRechazo - desde > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estado de una clase: límite, operaciones en curso, cola y mediciones de la ventana
+     */
+    private final class Limitador {
+        private final Clase clase;
+        private final int inicial;
+        private final int minimo;
+        private final int maximo;
+        private final long esperaMaximaNanos;
+        private final int largoCola;
+
+        private final AtomicInteger limite;
+        private final AtomicInteger enCurso = new AtomicInteger();
+        private final AtomicInteger esperando = new AtomicInteger();
+        private final ReentrantLock cerrojo = new ReentrantLock();
+        private final Condition liberado = cerrojo.newCondition();
+        private final LongAdder rechazadas = new LongAdder();
+        private volatile long ultimoRechazo = System.nanoTime() - Long.MAX_VALUE / 2;
+
+        // Mediciones de la ventana actual
+        private final AtomicLong inicioVentana = new AtomicLong(System.nanoTime());
+        private final LongAdder muestras = new LongAdder();
+        private final LongAdder sumaLatencias = new LongAdder();
+        private final AtomicInteger pico = new AtomicInteger();      // Máximo en curso de la ventana
+        private volatile long latenciaBase = Long.MAX_VALUE / 4;     // Mejor latencia media conocida
+
+        private Limitador(Clase clase, int inicial, int minimo, int maximo, Duration esperaMaxima, int largoCola) {
+            this.clase = clase;
+            this.limite = new AtomicInteger(inicial);
+            this.inicial = inicial;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.esperaMaximaNanos = esperaMaxima.toNanos();
+            this.largoCola = largoCola;
+        }
+
+        /**
+         * Ocupa un lugar; si no hay, espera en cola hasta el máximo de la clase
+         * @param puedeEsperar - false para rechazar en el acto en lugar de hacer cola
+         */
+        private boolean adquirir(boolean puedeEsperar) {
+            // Camino rápido: sin cola no hay a quién adelantarse
+            if (esperando.get() == 0 && intentarOcupar()) {
+                return true;
+            }
+            if (!puedeEsperar || esperaMaximaNanos == 0 || esperando.get() >= largoCola) {
+                return false;
+            }
+
+            cerrojo.lock();
+            esperando.incrementAndGet();
+            try {
+                long restante = esperaMaximaNanos;
+                while (!intentarOcupar()) {
+                    if (restante <= 0) {
+                        return false;
+                    }
+                    restante = liberado.awaitNanos(restante);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                esperando.decrementAndGet();
+                cerrojo.unlock();
+            }
+        }
+
+        private boolean intentarOcupar() {
+            while (true) {
+                int actual = enCurso.get();
+                if (actual >= limite.get()) {
+                    return false;
+                }
+                if (enCurso.compareAndSet(actual, actual + 1)) {
+                    if (actual + 1 > pico.get()) {
+                        pico.accumulateAndGet(actual + 1, Math::max);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void liberar() {
+            enCurso.decrementAndGet();
+            despertar();
+        }
+
+        /**
+         * Hay un lugar más (se liberó o subió el límite): despierta al que más tiempo lleva esperando
+         */
+        private void despertar() {
+            if (esperando.get() > 0) {
+                cerrojo.lock();
+                try {
+                    liberado.signal();
+                } finally {
+                    cerrojo.unlock();
+                }
+            }
+        }
+
+        /**
+         * Registra la latencia de una operación
+         * @return true si este hilo debe cerrar la ventana actual
+         */
+        private boolean registrar(long latencia) {
+            muestras.increment();
+            sumaLatencias.add(latencia);
+            long inicio = inicioVentana.get();
+            long ahora = System.nanoTime();
+            return ahora - inicio >= ventanaNanos && inicioVentana.compareAndSet(inicio, ahora);
+        }
+
+        private void reducir() {
+            int anterior = limite.getAndUpdate(actual -> Math.max(minimo, (int) (actual * REDUCCION)));
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine(String.format("Límite de %s reducido de %d a %d", clase, anterior, limite.get()));
+            }
+        }
+
+        private void aumentar() {
+            if (limite.getAndUpdate(actual -> Math.min(maximo, actual + 1)) < maximo) {
+                despertar();    // El lugar nuevo puede ocuparlo alguien de la cola
+            }
+        }
+
+        /**
+         * Aumento aditivo hasta el límite inicial (no depende del tráfico propio)
+         */
+        private void recuperar() {
+            if (limite.getAndUpdate(actual -> actual < inicial ? actual + 1 : actual) < inicial) {
+                despertar();
+            }
+        }
+
+        private SobrecargaException rechazar(String motivo) {
+            rechazadas.increment();
+            ultimoRechazo = System.nanoTime();
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine(String.format("Operación %s rechazada: %s", clase, motivo));
+            }
+            return new SobrecargaException(clase, String.format("Servicio sobrecargado, operación %s rechazada: %s",
+                    clase, motivo));
+        }
+    }
+}
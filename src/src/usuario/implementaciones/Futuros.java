@@ -0,0 +1,51 @@
+package usuario.implementaciones;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Utilidades para operaciones asíncronas: desenvolver errores y adaptarlas a llamadas bloqueantes
+ */
+public final class Futuros {
+
+    private Futuros() {
+        // Clase utilitaria, no se instancia
+    }
+
+    /**
+     * Future que completa con el mismo resultado, pero cuyo error es la excepción
+     * original (ej: SecurityException) y no la CompletionException que agregan
+     * las etapas encadenadas; así exceptionally() y handle() reciben el tipo real
+     */
+    public static <T> CompletableFuture<T> desenvolver(CompletableFuture<T> futuro) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        futuro.whenComplete((valor, error) -> {
+            if (error == null) {
+                resultado.complete(valor);
+            } else {
+                resultado.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Espera el resultado de un Future y relanza la excepción original
+     * (ej: SecurityException) en lugar de la CompletionException que la envuelve
+     */
+    public static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IHashPassword;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hash de contraseñas con PBKDF2-HMAC-SHA256 - PRINCIPIOS DIP y SRP
+ * Formato almacenado: $pbkdf2-sha256$<iteraciones>$<sal>$<hash>
+ * Las iteraciones (costo) viajan en la cabecera, así se verifican valores
+ * generados con costos anteriores y se detecta cuáles hay que actualizar.
+ * Los valores sin cabecera se consideran contraseñas antiguas en texto plano.
+ *
+ * Un hash con costo viejo se puede reforzar sin la contraseña encadenando
+ * otra derivación sobre el hash existente: la cabecera lista los costos de
+ * cada etapa (ej: $pbkdf2-sha256$10000+30000$...) y el costo total es su suma.
+ */
+public class HashPasswordPbkdf2 implements IHashPassword {
+
+    private static final String PREFIJO = "$pbkdf2-sha256$";
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final int iteraciones;    // Costo actual para los nuevos hashes
+
+    /**
+     * @param iteraciones - Costo de PBKDF2; subirlo hace que los hashes anteriores se actualicen
+     */
+    public HashPasswordPbkdf2(int iteraciones) {
+        this.iteraciones = iteraciones;
+    }
+
+    @Override
+    public String generar(String password) {
+        byte[] sal = new byte[BYTES_SAL];
+        aleatorio.nextBytes(sal);
+        Base64.Encoder codificador = Base64.getEncoder().withoutPadding();
+        return PREFIJO + iteraciones + "$" + codificador.encodeToString(sal) + "$"
+                + codificador.encodeToString(derivar(password, sal, iteraciones));
+    }
+
+    @Override
+    public boolean verificar(String password, String almacenado) {
+        if (password == null || almacenado == null) {
+            return false;
+        }
+        if (!esHash(almacenado)) {
+            // Contraseña antigua en texto plano; comparación en tiempo constante
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    almacenado.getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            String[] partes = almacenado.substring(PREFIJO.length()).split("\\$");
+            String[] costos = partes[0].split("\\+");
+            byte[] sal = Base64.getDecoder().decode(partes[1]);
+            byte[] esperado = Base64.getDecoder().decode(partes[2]);
+
+            // Primera etapa sobre la contraseña, las siguientes sobre el resultado anterior
+            byte[] derivado = derivar(password, sal, Integer.parseInt(costos[0]));
+            for (int i = 1; i < costos.length; i++) {
+                derivado = encadenar(derivado, sal, Integer.parseInt(costos[i]));
+            }
+            return MessageDigest.isEqual(derivado, esperado);
+        } catch (RuntimeException e) {
+            return false;    // Valor almacenado corrupto
+        }
+    }
+
+    @Override
+    public boolean esHash(String almacenado) {
+        return almacenado != null && almacenado.startsWith(PREFIJO);
+    }
+
+    @Override
+    public boolean requiereActualizacion(String almacenado) {
+        if (!esHash(almacenado)) {
+            return true;    // Texto plano u otro esquema
+        }
+        long costo = costoTotal(almacenado);
+        return costo < 0 || costo < iteraciones;
+    }
+
+    @Override
+    public String actualizar(String almacenado) {
+        if (!esHash(almacenado)) {
+            return generar(almacenado);    // Texto plano: se conoce la contraseña
+        }
+        long costo = costoTotal(almacenado);
+        if (costo < 0) {
+            throw new IllegalArgumentException("Hash almacenado corrupto");
+        }
+        if (costo >= iteraciones) {
+            return almacenado;
+        }
+
+        // Etapa adicional con el costo que falta, sobre el hash guardado y con la misma sal
+        String[] partes = almacenado.substring(PREFIJO.length()).split("\\$");
+        int adicional = (int) (iteraciones - costo);
+        byte[] sal = Base64.getDecoder().decode(partes[1]);
+        byte[] derivado = encadenar(Base64.getDecoder().decode(partes[2]), sal, adicional);
+        return PREFIJO + partes[0] + "+" + adicional + "$" + partes[1] + "$"
+                + Base64.getEncoder().withoutPadding().encodeToString(derivado);
+    }
+
+    /**
+     * Suma de los costos de la cabecera
+     * @return Costo total o -1 si la cabecera es inválida
+     */
+    private static long costoTotal(String almacenado) {
+        int fin = almacenado.indexOf('$', PREFIJO.length());
+        if (fin < 0) {
+            return -1;
+        }
+        long total = 0;
+        try {
+            for (String costo : almacenado.substring(PREFIJO.length(), fin).split("\\+")) {
+                total += Integer.parseInt(costo);
+            }
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return total;
+    }
+
+    /**
+     * Etapa encadenada: deriva a partir del resultado de la etapa anterior
+     */
+    private static byte[] encadenar(byte[] anterior, byte[] sal, int costo) {
+        return derivar(Base64.getEncoder().withoutPadding().encodeToString(anterior), sal, costo);
+    }
+
+    private static byte[] derivar(String password, byte[] sal, int costo) {
+        PBEKeySpec especificacion = new PBEKeySpec(password.toCharArray(), sal, costo, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacion).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 no disponible", e);
+        } finally {
+            especificacion.clearPassword();
+        }
+    }
+}
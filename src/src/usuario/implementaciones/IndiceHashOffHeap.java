@@ -0,0 +1,261 @@
+package usuario.implementaciones;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.ref.Cleaner;
+
+/**
+ * Índice hash fuera del heap - PRINCIPIO SRP
+ * Tabla de direccionamiento abierto (sondeo lineal) guardada en un MemorySegment
+ * nativo (API de memoria externa, final desde JDK 22). Cada posición ocupa
+ * 16 bytes: hash de 64 bits de la clave y número de registro. No guarda las
+ * claves: al encontrar un hash igual se confirma la
+ * coincidencia con el Verificador, que compara contra el dato original.
+ *
+ * Así el índice no agrega objetos al heap ni trabajo al GC, sin importar
+ * cuántas claves tenga. Capacidad máxima: 2^26 posiciones (~47 millones de claves).
+ *
+ * Al crecer, la tabla anterior se libera en el momento (no queda esperando al
+ * GC como un ByteBuffer directo), así el pico de memoria nativa es la tabla
+ * nueva más una sola anterior. La tabla vigente se libera cuando el índice deja
+ * de usarse.
+ *
+ * No es thread-safe: quien lo usa debe coordinar lecturas y escrituras. Una
+ * lectura sin bloqueo que coincide con el crecimiento puede fallar con
+ * IllegalStateException y debe reintentarse.
+ */
+public final class IndiceHashOffHeap {
+
+    private static final int BYTES_POSICION = 16;
+    private static final int MAX_POSICIONES = 1 << 26;     // 1 GB, las posiciones se indexan con int
+    private static final double CARGA_MAXIMA = 0.7;
+    private static final long VACIO = 0;                   // Hash reservado para posiciones libres
+    private static final Cleaner LIMPIADOR = Cleaner.create();
+
+    /**
+     * Confirma que un registro corresponde realmente a la clave buscada
+     */
+    @FunctionalInterface
+    public interface Verificador {
+        boolean coincide(long registro, String clave);
+    }
+
+    private final Verificador verificador;
+    private volatile Tabla tabla;    // Memoria y máscara se reemplazan juntas al crecer
+    private final Liberador liberador = new Liberador();
+    private int ocupadas;
+
+    /**
+     * @param capacidadInicial - Cantidad de claves esperada
+     * @param verificador - Compara la clave con el registro almacenado
+     */
+    public IndiceHashOffHeap(int capacidadInicial, Verificador verificador) {
+        this.verificador = verificador;
+        this.tabla = new Tabla(potenciaDeDos((int) Math.min(MAX_POSICIONES, (long) (capacidadInicial / CARGA_MAXIMA) + 1)));
+        this.liberador.vigente = tabla;
+        LIMPIADOR.register(this, liberador);    // Libera la tabla vigente cuando el índice es inalcanzable
+    }
+
+    /**
+     * Busca el registro asociado a una clave
+     * @return Número de registro o -1 si la clave no existe
+     */
+    public long buscar(String clave) {
+        Tabla actual = tabla;
+        long hash = hash64(clave);
+        int posicion = (int) hash & actual.mascara;
+
+        // El recorrido está acotado por la capacidad aunque la tabla cambie en paralelo
+        for (int intentos = 0; intentos <= actual.mascara; intentos++) {
+            long hashGuardado = actual.hash(posicion);
+            if (hashGuardado == VACIO) {
+                return -1;
+            }
+            if (hashGuardado == hash) {
+                long registro = actual.registro(posicion);
+                if (verificador.coincide(registro, clave)) {
+                    return registro;
+                }
+            }
+            posicion = (posicion + 1) & actual.mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Agrega una clave; se permiten claves repetidas en registros distintos
+     */
+    public void insertar(String clave, long registro) {
+        if (ocupadas + 1 > tabla.capacidad() * CARGA_MAXIMA) {
+            crecer();
+        }
+        tabla.colocar(hash64(clave), registro);
+        ocupadas++;
+    }
+
+    /**
+     * Elimina la entrada de una clave para un registro concreto
+     * @return true si la entrada existía
+     */
+    public boolean eliminar(String clave, long registro) {
+        Tabla actual = tabla;
+        long hash = hash64(clave);
+        int posicion = (int) hash & actual.mascara;
+
+        long hashGuardado;
+        while ((hashGuardado = actual.hash(posicion)) != VACIO) {
+            if (hashGuardado == hash && actual.registro(posicion) == registro) {
+                actual.desplazarHaciaAtras(posicion);
+                ocupadas--;
+                return true;
+            }
+            posicion = (posicion + 1) & actual.mascara;
+        }
+        return false;
+    }
+
+    public int tamano() {
+        return ocupadas;
+    }
+
+    /**
+     * Duplica la tabla; los hashes guardados permiten reubicar sin recalcularlos
+     * La tabla anterior se libera apenas deja de estar publicada
+     */
+    private void crecer() {
+        Tabla anterior = tabla;
+        if (anterior.capacidad() >= MAX_POSICIONES) {
+            throw new IllegalStateException("El índice alcanzó su capacidad máxima");
+        }
+        Tabla nueva = new Tabla(anterior.capacidad() * 2);
+        for (int i = 0; i < anterior.capacidad(); i++) {
+            long hash = anterior.hash(i);
+            if (hash != VACIO) {
+                nueva.colocar(hash, anterior.registro(i));
+            }
+        }
+        tabla = nueva;
+        liberador.vigente = nueva;
+        anterior.liberar();
+    }
+
+    /**
+     * Hash de 64 bits sobre los caracteres, sin crear objetos
+     * (FNV-1a seguido de la mezcla final de MurmurHash3)
+     */
+    static long hash64(CharSequence clave) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < clave.length(); i++) {
+            h = (h ^ clave.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == VACIO ? 1 : h;    // El 0 está reservado para posiciones libres
+    }
+
+    private static int potenciaDeDos(int valor) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, valor - 1)) << 1);
+    }
+
+    /**
+     * Libera la tabla vigente; no referencia al índice para que este pueda ser recolectado
+     */
+    private static final class Liberador implements Runnable {
+        private volatile Tabla vigente;
+
+        @Override
+        public void run() {
+            vigente.liberar();
+        }
+    }
+
+    /**
+     * Memoria nativa de la tabla con su máscara
+     * Cada tabla tiene su propia Arena compartida para poder liberarla sola
+     */
+    private static final class Tabla {
+        private final Arena arena;
+        private final MemorySegment memoria;
+        private final int mascara;
+
+        private Tabla(int capacidad) {
+            this.arena = Arena.ofShared();
+            try {
+                // La Arena entrega la memoria en cero: todas las posiciones empiezan libres
+                this.memoria = arena.allocate((long) capacidad * BYTES_POSICION, Long.BYTES);
+            } catch (RuntimeException | OutOfMemoryError e) {
+                arena.close();
+                throw e;
+            }
+            this.mascara = capacidad - 1;
+        }
+
+        /**
+         * Devuelve la memoria al sistema; un acceso posterior falla con IllegalStateException
+         */
+        private void liberar() {
+            while (arena.scope().isAlive()) {
+                try {
+                    arena.close();
+                } catch (IllegalStateException e) {
+                    // Una lectura sin bloqueo está accediendo en este instante: termina enseguida
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        private int capacidad() {
+            return mascara + 1;
+        }
+
+        private long hash(int posicion) {
+            return memoria.get(ValueLayout.JAVA_LONG, (long) posicion * BYTES_POSICION);
+        }
+
+        private long registro(int posicion) {
+            return memoria.get(ValueLayout.JAVA_LONG, (long) posicion * BYTES_POSICION + 8);
+        }
+
+        private void escribir(int posicion, long hash, long registro) {
+            memoria.set(ValueLayout.JAVA_LONG, (long) posicion * BYTES_POSICION + 8, registro);
+            memoria.set(ValueLayout.JAVA_LONG, (long) posicion * BYTES_POSICION, hash);
+        }
+
+        private void colocar(long hash, long registro) {
+            int posicion = (int) hash & mascara;
+            while (hash(posicion) != VACIO) {
+                posicion = (posicion + 1) & mascara;
+            }
+            escribir(posicion, hash, registro);
+        }
+
+        /**
+         * Borra una posición moviendo hacia atrás las entradas siguientes
+         * que quedarían inalcanzables (evita marcas de borrado)
+         */
+        private void desplazarHaciaAtras(int libre) {
+            int posicion = libre;
+            while (true) {
+                posicion = (posicion + 1) & mascara;
+                long hash = hash(posicion);
+                if (hash == VACIO) {
+                    break;
+                }
+                int ideal = (int) hash & mascara;
+                // Se mueve si su posición ideal no está entre el hueco y su posición actual
+                boolean mover = libre <= posicion
+                        ? ideal <= libre || ideal > posicion
+                        : ideal <= libre && ideal > posicion;
+                if (mover) {
+                    escribir(libre, hash, registro(posicion));
+                    libre = posicion;
+                }
+            }
+            escribir(libre, VACIO, 0);
+        }
+    }
+}
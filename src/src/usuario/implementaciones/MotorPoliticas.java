@@ -0,0 +1,246 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IPoliticaAcceso;
+import usuario.modelo.ArbolRecursos;
+import usuario.modelo.Rol;
+import usuario.modelo.roles.CatalogoRoles;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Motor de políticas de acceso basado en datos - PRINCIPIOS OCP, SRP y DIP
+ * OCP: Nuevos recursos y reglas se agregan en el archivo, sin cambiar código
+ * SRP: Solo carga, compila y evalúa reglas de acceso
+ * DIP: Implementa IPoliticaAcceso
+ *
+ * Formato del archivo (una instrucción por línea, # para comentarios):
+ *   regla Usuario deny admin_panel   -> regla sobre admin_panel y todos sus sub-recursos
+ *   regla Usuario allow *            -> regla por defecto del rol
+ *   recurso admin_panel              -> aceptado por compatibilidad, ya no es necesario
+ *
+ * Igual que los roles, las reglas de cada rol se compilan en un ArbolRecursos:
+ * una regla sobre una ruta cubre sus sub-recursos (admin_panel/users/export) y
+ * decide la regla más profunda. admin_panel* y admin_panel/* equivalen a
+ * admin_panel; nunca cubren admin_panelX. Ante allow y deny sobre la misma ruta
+ * gana deny, y sin ninguna regla aplicable el acceso se deniega.
+ *
+ * La tabla compilada es inmutable y se reemplaza de forma atómica al recargar,
+ * por lo que las consultas en curso nunca se bloquean. Al vigilar el archivo,
+ * la recarga espera a que deje de modificarse; aun así, lo más seguro es
+ * escribirlo aparte y reemplazarlo con un renombrado atómico.
+ */
+public class MotorPoliticas implements IPoliticaAcceso, AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(MotorPoliticas.class.getName());
+    private static final long ESPERA_ESTABLE_MS = 500;    // Tiempo sin cambios antes de recargar
+
+    private final Path archivo;                    // Archivo de configuración de reglas
+    private volatile TablaDecisiones tabla;        // Tabla vigente, se reemplaza completa
+    private WatchService vigilancia;               // Detecta cambios en el archivo
+    private Thread vigilante;                      // Hilo que recarga al detectar cambios
+
+    /**
+     * Constructor que carga y compila las reglas iniciales
+     * @param archivo - Archivo de configuración de políticas
+     * @throws IOException si el archivo no se puede leer
+     */
+    public MotorPoliticas(Path archivo) throws IOException {
+        this.archivo = archivo.toAbsolutePath();
+        this.tabla = compilar(Files.readAllLines(this.archivo));
+        logger.info(String.format("Políticas cargadas desde %s", this.archivo));
+    }
+
+    @Override
+    public boolean puedeAcceder(Rol rol, String recurso) {
+        // Lectura volátil única: la consulta usa una tabla consistente
+        return tabla.decidir(rol, recurso);
+    }
+
+    /**
+     * Vuelve a leer el archivo y reemplaza la tabla si es válido
+     * Si el archivo tiene errores se conserva la tabla anterior
+     * @return true si la nueva tabla quedó activa
+     */
+    public boolean recargar() {
+        try {
+            tabla = compilar(Files.readAllLines(archivo));
+            logger.info(String.format("Políticas recargadas desde %s", archivo));
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warning(String.format("No se pudieron recargar las políticas: %s", e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Inicia un hilo en segundo plano que recarga las reglas al modificarse el archivo
+     */
+    public synchronized void iniciarVigilancia() throws IOException {
+        if (vigilante != null) {
+            return;    // Ya se está vigilando
+        }
+        vigilancia = archivo.getFileSystem().newWatchService();
+        archivo.getParent().register(vigilancia,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        vigilante = new Thread(this::vigilar, "vigilante-politicas");
+        vigilante.setDaemon(true);    // No impide que la aplicación termine
+        vigilante.start();
+    }
+
+    /**
+     * Detiene la vigilancia del archivo
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (vigilancia != null) {
+            vigilancia.close();    // Despierta al hilo con ClosedWatchServiceException
+            vigilancia = null;
+            vigilante = null;
+        }
+    }
+
+    /**
+     * Bucle del hilo vigilante
+     */
+    private void vigilar() {
+        WatchService servicio = vigilancia;
+        try {
+            while (true) {
+                if (!cambioArchivo(servicio.take())) {
+                    continue;
+                }
+                // El primer evento puede llegar con el archivo a medio escribir:
+                // se recarga recién cuando pasa un intervalo sin nuevos eventos
+                WatchKey siguiente;
+                while ((siguiente = servicio.poll(ESPERA_ESTABLE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    cambioArchivo(siguiente);
+                }
+                recargar();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Vigilancia detenida con close()
+        }
+    }
+
+    /**
+     * Consume los eventos de una clave del directorio vigilado
+     * @return true si alguno corresponde al archivo de políticas
+     */
+    private boolean cambioArchivo(WatchKey clave) {
+        boolean cambio = false;
+        for (WatchEvent<?> evento : clave.pollEvents()) {
+            // Solo interesa el archivo de políticas, no el resto del directorio
+            if (archivo.getFileName().equals(evento.context())) {
+                cambio = true;
+            }
+        }
+        clave.reset();
+        return cambio;
+    }
+
+    /**
+     * Compila las líneas del archivo en una tabla de decisiones inmutable
+     */
+    private static TablaDecisiones compilar(List<String> lineas) {
+        Map<String, List<String[]>> reglasPorRol = new HashMap<>();
+
+        for (int i = 0; i < lineas.size(); i++) {
+            String linea = lineas.get(i).trim();
+            if (linea.isEmpty() || linea.startsWith("#")) {
+                continue;    // Línea vacía o comentario
+            }
+            String[] partes = linea.split("\\s+");
+            if (partes[0].equals("recurso") && partes.length == 2) {
+                continue;    // Formato anterior: el árbol no necesita precalcular recursos
+            } else if (partes[0].equals("regla") && partes.length == 4 &&
+                    (partes[2].equals("allow") || partes[2].equals("deny"))) {
+                // partes[1] = rol, partes[2] = efecto, partes[3] = recurso o prefijo
+                reglasPorRol.computeIfAbsent(partes[1], r -> new ArrayList<>()).add(partes);
+            } else {
+                throw new IllegalArgumentException(String.format("Línea %d inválida: %s", i + 1, linea));
+            }
+        }
+
+        Map<String, PoliticaRol> politicas = new HashMap<>();
+        for (Map.Entry<String, List<String[]>> entrada : reglasPorRol.entrySet()) {
+            politicas.put(entrada.getKey(), new PoliticaRol(entrada.getValue()));
+        }
+        return new TablaDecisiones(politicas);
+    }
+
+    /**
+     * Tabla de decisiones compilada (inmutable)
+     */
+    private static final class TablaDecisiones {
+        private final Map<String, PoliticaRol> politicas;
+
+        private TablaDecisiones(Map<String, PoliticaRol> politicas) {
+            this.politicas = politicas;
+        }
+
+        private boolean decidir(Rol rol, String recurso) {
+            PoliticaRol politica = politicas.get(CatalogoRoles.codigoDe(rol));
+            // Los roles sin reglas en el archivo conservan su propia lógica
+            return politica != null ? politica.decidir(recurso) : rol.puedeAcceder(recurso);
+        }
+    }
+
+    /**
+     * Reglas compiladas de un rol, con la misma semántica jerárquica que los roles
+     */
+    private static final class PoliticaRol {
+        private final ArbolRecursos arbol;
+
+        private PoliticaRol(List<String[]> reglas) {
+            Boolean porDefecto = null;
+            Map<String, Boolean> porRuta = new HashMap<>();
+            for (String[] regla : reglas) {
+                boolean permite = regla[2].equals("allow");
+                String ruta = normalizar(regla[3]);
+                if (ruta.isEmpty()) {
+                    // Regla "*": decisión por defecto (si hay allow y deny, gana deny)
+                    porDefecto = porDefecto == null ? permite : porDefecto && permite;
+                } else {
+                    // merge con AND: si hay allow y deny sobre lo mismo, gana deny
+                    porRuta.merge(ruta, permite, Boolean::logicalAnd);
+                }
+            }
+            arbol = ArbolRecursos.compilar(porDefecto != null && porDefecto, porRuta);
+        }
+
+        private boolean decidir(String recurso) {
+            return arbol.permite(recurso);
+        }
+
+        /**
+         * Quita el comodín final y los '/' de los extremos (admin_panel/* -> admin_panel)
+         */
+        private static String normalizar(String ruta) {
+            int inicio = 0;
+            int fin = ruta.endsWith("*") ? ruta.length() - 1 : ruta.length();
+            while (fin > inicio && ruta.charAt(fin - 1) == '/') {
+                fin--;
+            }
+            while (inicio < fin && ruta.charAt(inicio) == '/') {
+                inicio++;
+            }
+            return ruta.substring(inicio, fin);
+        }
+    }
+}
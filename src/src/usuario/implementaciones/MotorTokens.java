@@ -0,0 +1,314 @@
+package usuario.implementaciones;
+
+import usuario.modelo.Rol;
+import usuario.modelo.Usuario;
+import usuario.modelo.roles.CatalogoRoles;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Motor de tokens de sesión firmados - PRINCIPIO SRP
+ * Emite y verifica tokens firmados con HMAC que contienen los datos de la sesión
+ * (id, email, nombre, código de rol y expiración), por lo que verificarlos
+ * no requiere consultar el repositorio ni una tabla de sesiones.
+ *
+ * Formato: idClave.datosBase64.firmaBase64
+ */
+public class MotorTokens {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final char SEPARADOR = '\u001F';     // Separador de campos dentro del token
+    private static final int CLAVES_ANTERIORES = 2;      // Claves rotadas que siguen verificando
+    private static final int MAX_CACHE = 10_000;         // Máximo de tokens verificados en caché
+    private static final int PODA_CACHE = MAX_CACHE / 8; // Entradas que libera cada poda de la caché
+    private static final int MACS_LIBRES = 64;           // Mac reutilizables guardados por clave
+
+    private static final Base64.Encoder codificador = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder decodificador = Base64.getUrlDecoder();
+
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final long vigenciaMillis;
+
+    // Claves activas por id; la clave actual firma y las anteriores solo verifican
+    private final Map<String, ClaveFirma> claves = new ConcurrentHashMap<>();
+    private final Deque<ClaveFirma> historialClaves = new ArrayDeque<>();
+    private volatile ClaveFirma claveActual;
+    private int siguienteIdClave;
+
+    // Firmas revocadas antes de expirar (clave: firma, valor: expiración del token)
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>();
+    // Tokens ya verificados (clave: firma), evita recalcular el HMAC
+    private final Map<String, SesionToken> verificados = new ConcurrentHashMap<>();
+    private final AtomicBoolean podando = new AtomicBoolean();
+
+    /**
+     * Constructor del motor de tokens
+     * @param vigencia - Tiempo de validez de cada token emitido
+     */
+    public MotorTokens(Duration vigencia) {
+        this.vigenciaMillis = vigencia.toMillis();
+        rotarClave();    // Genera la primera clave de firma
+    }
+
+    /**
+     * Emite un token firmado para el usuario indicado
+     * @param usuario - Usuario autenticado
+     * @return Token compacto listo para enviarse al cliente
+     */
+    public String emitir(Usuario usuario) {
+        String codigoRol = CatalogoRoles.codigoDe(usuario.getRol());
+        long expiraEn = System.currentTimeMillis() + vigenciaMillis;
+
+        // Los campos se unen con un separador que no puede aparecer en ellos
+        StringBuilder datos = new StringBuilder();
+        for (String campo : new String[]{usuario.getId(), usuario.getEmail(), usuario.getNombre(), codigoRol}) {
+            if (campo.indexOf(SEPARADOR) >= 0) {
+                throw new IllegalArgumentException("Datos de usuario inválidos para emitir token");
+            }
+            datos.append(campo).append(SEPARADOR);
+        }
+        datos.append(expiraEn);
+
+        ClaveFirma clave = claveActual;
+        String cuerpo = clave.id + "." + codificador.encodeToString(datos.toString().getBytes(StandardCharsets.UTF_8));
+        return cuerpo + "." + codificador.encodeToString(clave.firmar(cuerpo));
+    }
+
+    /**
+     * Verifica un token sin acceder al repositorio
+     * @param token - Token recibido del cliente
+     * @return Datos de la sesión o null si el token es inválido, expiró o fue revocado
+     */
+    public SesionToken verificar(String token) {
+        if (token == null) {
+            return null;
+        }
+        int finCuerpo = token.lastIndexOf('.');
+        if (finCuerpo <= 0) {
+            return null;
+        }
+        String firma = token.substring(finCuerpo + 1);
+        long ahora = System.currentTimeMillis();
+
+        // Camino rápido: token ya verificado anteriormente
+        SesionToken enCache = verificados.get(firma);
+        if (enCache != null && enCache.token.equals(token)) {
+            return vigente(enCache, firma, ahora) ? enCache : null;
+        }
+
+        // Camino lento: se valida la firma con la clave indicada en el token
+        SesionToken sesion = decodificar(token, finCuerpo);
+        if (sesion == null || !vigente(sesion, firma, ahora)) {
+            return null;
+        }
+        if (verificados.size() >= MAX_CACHE) {
+            podarCache(ahora);
+        }
+        verificados.put(firma, sesion);
+        return sesion;
+    }
+
+    /**
+     * Libera una parte de la caché en lugar de vaciarla: vaciarla de golpe haría que
+     * todos los tokens en uso vuelvan a calcular el HMAC a la vez
+     * Primero salen los expirados; si no alcanza, entradas en el orden de la tabla
+     */
+    private void podarCache(long ahora) {
+        if (!podando.compareAndSet(false, true)) {
+            return;    // Otro hilo ya está podando; la caché puede pasarse del límite por un momento
+        }
+        try {
+            verificados.values().removeIf(sesion -> sesion.expiraEn <= ahora);
+            Iterator<SesionToken> entradas = verificados.values().iterator();
+            while (verificados.size() > MAX_CACHE - PODA_CACHE && entradas.hasNext()) {
+                entradas.next();
+                entradas.remove();
+            }
+        } finally {
+            podando.set(false);
+        }
+    }
+
+    /**
+     * Genera una nueva clave de firma; las anteriores siguen verificando
+     * hasta que salen del historial
+     */
+    public synchronized void rotarClave() {
+        byte[] secreto = new byte[32];
+        aleatorio.nextBytes(secreto);
+        ClaveFirma nueva = new ClaveFirma(Integer.toString(siguienteIdClave++, 36), secreto);
+
+        claves.put(nueva.id, nueva);
+        historialClaves.addLast(nueva);
+        claveActual = nueva;
+
+        // Retira las claves más antiguas; sus tokens dejan de ser válidos
+        while (historialClaves.size() > CLAVES_ANTERIORES + 1) {
+            claves.remove(historialClaves.removeFirst().id);
+        }
+    }
+
+    /**
+     * Revoca un token antes de su expiración (ej: cierre de sesión)
+     */
+    public void revocar(String token) {
+        SesionToken sesion = verificar(token);
+        if (sesion == null) {
+            return;    // Token inválido o ya expirado, no hace falta revocarlo
+        }
+        String firma = token.substring(token.lastIndexOf('.') + 1);
+        long ahora = System.currentTimeMillis();
+
+        // Limpia las revocaciones de tokens que ya expiraron por sí solos
+        revocados.values().removeIf(expira -> expira <= ahora);
+        revocados.put(firma, sesion.expiraEn);
+        verificados.remove(firma);
+    }
+
+    /**
+     * Comprueba expiración, revocación y que la clave de firma siga activa
+     */
+    private boolean vigente(SesionToken sesion, String firma, long ahora) {
+        return sesion.expiraEn > ahora &&
+                claves.containsKey(sesion.idClave) &&
+                (revocados.isEmpty() || !revocados.containsKey(firma));
+    }
+
+    /**
+     * Valida la firma y extrae los campos del token
+     */
+    private SesionToken decodificar(String token, int finCuerpo) {
+        int finClave = token.indexOf('.');
+        if (finClave <= 0 || finClave >= finCuerpo) {
+            return null;
+        }
+        ClaveFirma clave = claves.get(token.substring(0, finClave));
+        if (clave == null) {
+            return null;    // Clave desconocida o ya retirada
+        }
+
+        try {
+            String cuerpo = token.substring(0, finCuerpo);
+            byte[] firmaRecibida = decodificador.decode(token.substring(finCuerpo + 1));
+            // Comparación en tiempo constante para no filtrar información de la firma
+            if (!MessageDigest.isEqual(clave.firmar(cuerpo), firmaRecibida)) {
+                return null;
+            }
+
+            String datos = new String(decodificador.decode(token.substring(finClave + 1, finCuerpo)),
+                    StandardCharsets.UTF_8);
+            String[] campos = new String[5];
+            int inicio = 0;
+            for (int i = 0; i < 4; i++) {
+                int fin = datos.indexOf(SEPARADOR, inicio);
+                if (fin < 0) {
+                    return null;
+                }
+                campos[i] = datos.substring(inicio, fin);
+                inicio = fin + 1;
+            }
+            campos[4] = datos.substring(inicio);
+
+            Rol rol = CatalogoRoles.buscar(campos[3]);
+            if (rol == null) {
+                return null;
+            }
+            return new SesionToken(token, clave.id, campos[0], campos[1], campos[2], rol, Long.parseLong(campos[4]));
+        } catch (IllegalArgumentException e) {
+            // Base64 o número mal formado: el token no es válido
+            return null;
+        }
+    }
+
+    /**
+     * Clave de firma con un pool de Mac (Mac no es thread-safe)
+     * El pool no depende del hilo: con hilos virtuales cada solicitud corre en un hilo
+     * nuevo y un Mac por hilo se volvería a crear en cada verificación
+     */
+    private static final class ClaveFirma {
+        private final String id;
+        private final SecretKeySpec especificacion;
+        private final Mac prototipo;                      // Ya inicializado; solo se clona, nunca firma
+        private final BlockingQueue<Mac> libres = new ArrayBlockingQueue<>(MACS_LIBRES);
+
+        private ClaveFirma(String id, byte[] secreto) {
+            this.id = id;
+            this.especificacion = new SecretKeySpec(secreto, ALGORITMO);
+            this.prototipo = inicializar();
+        }
+
+        private byte[] firmar(String cuerpo) {
+            Mac mac = libres.poll();
+            if (mac == null) {
+                mac = nuevoMac();    // Pool vacío: más firmas concurrentes que Mac libres
+            }
+            byte[] firma = mac.doFinal(cuerpo.getBytes(StandardCharsets.UTF_8));    // doFinal deja el Mac listo
+            libres.offer(mac);    // Si el pool está lleno el Mac se descarta
+            return firma;
+        }
+
+        /**
+         * Clona el prototipo para no repetir la derivación de la clave de init()
+         */
+        private Mac nuevoMac() {
+            try {
+                synchronized (prototipo) {
+                    return (Mac) prototipo.clone();
+                }
+            } catch (CloneNotSupportedException e) {
+                return inicializar();    // El proveedor no admite clonar: se inicializa con la misma clave
+            }
+        }
+
+        private Mac inicializar() {
+            try {
+                Mac nuevo = Mac.getInstance(ALGORITMO);
+                nuevo.init(especificacion);
+                return nuevo;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC no disponible", e);
+            }
+        }
+    }
+
+    /**
+     * Datos de una sesión extraídos de un token verificado
+     */
+    public static final class SesionToken {
+        private final String token;
+        private final String idClave;
+        private final long expiraEn;
+        private final Usuario usuario;
+
+        private SesionToken(String token, String idClave, String id, String email,
+                            String nombre, Rol rol, long expiraEn) {
+            this.token = token;
+            this.idClave = idClave;
+            this.expiraEn = expiraEn;
+            // La contraseña nunca viaja en el token
+            this.usuario = new Usuario(id, nombre, email, null, rol);
+        }
+
+        public Usuario getUsuario() {
+            return usuario;
+        }
+
+        public long getExpiraEn() {
+            return expiraEn;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IRepositorioUsuario;
+import usuario.interfaces.IRepositorioUsuarioAsync;
+import usuario.modelo.Usuario;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Adaptador síncrono -> asíncrono de repositorio - PRINCIPIOS DIP y OCP
+ * Ejecuta un IRepositorioUsuario bloqueante en el Executor indicado
+ */
+public class RepositorioUsuarioAsincrono implements IRepositorioUsuarioAsync {
+
+    private IRepositorioUsuario repositorio;    // Implementación bloqueante adaptada
+    private Executor executor;                  // Hilos donde se ejecutan las llamadas bloqueantes
+
+    public RepositorioUsuarioAsincrono(IRepositorioUsuario repositorio, Executor executor) {
+        this.repositorio = repositorio;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Usuario> buscarPorEmail(String email) {
+        return CompletableFuture.supplyAsync(() -> repositorio.buscarPorEmail(email), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> guardar(Usuario usuario) {
+        return CompletableFuture.runAsync(() -> repositorio.guardar(usuario), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existeEmail(String email) {
+        return CompletableFuture.supplyAsync(() -> repositorio.existeEmail(email), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> reemplazar(Usuario anterior, Usuario nuevo) {
+        return CompletableFuture.supplyAsync(() -> repositorio.reemplazar(anterior, nuevo), executor);
+    }
+}
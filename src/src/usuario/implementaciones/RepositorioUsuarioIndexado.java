@@ -0,0 +1,155 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IListadoUsuarios;
+import usuario.interfaces.IRepositorioUsuario;
+import usuario.modelo.Usuario;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Repositorio en memoria con índices fuera del heap - PRINCIPIOS DIP y SRP
+ * SRP: Solo se encarga de persistir usuarios
+ * DIP: Implementa las interfaces IRepositorioUsuario e IListadoUsuarios
+ *
+ * Los usuarios se guardan en un arreglo y se localizan por email o por ID
+ * mediante índices IndiceHashOffHeap, por lo que buscarPorEmail y existeEmail
+ * no recorren todos los usuarios ni agregan mapas al heap.
+ * Las lecturas son optimistas (sin bloqueo) y las escrituras exclusivas.
+ */
+public class RepositorioUsuarioIndexado implements IRepositorioUsuario, IListadoUsuarios {
+
+    private final StampedLock cerrojo = new StampedLock();
+    private Usuario[] registros;                       // Usuarios por número de registro
+    private int cantidad;                              // Registros ocupados
+    private final IndiceHashOffHeap indiceEmails;      // Email -> número de registro
+    private final IndiceHashOffHeap indiceIds;         // ID -> número de registro
+
+    public RepositorioUsuarioIndexado() {
+        this(1_024);
+    }
+
+    /**
+     * @param capacidadInicial - Cantidad de usuarios esperada (evita crecer al cargar)
+     */
+    public RepositorioUsuarioIndexado(int capacidadInicial) {
+        this.registros = new Usuario[Math.max(16, capacidadInicial)];
+        // Los verificadores comparan contra el dato guardado en el registro
+        this.indiceEmails = new IndiceHashOffHeap(capacidadInicial,
+                (registro, email) -> email.equals(leerRegistro(registro).getEmail()));
+        this.indiceIds = new IndiceHashOffHeap(capacidadInicial,
+                (registro, id) -> id.equals(leerRegistro(registro).getId()));
+    }
+
+    @Override
+    public Usuario buscarPorEmail(String email) {
+        // Intento optimista: sin bloqueo, se valida que no hubo escrituras durante la lectura
+        long sello = cerrojo.tryOptimisticRead();
+        try {
+            Usuario encontrado = buscarSinBloqueo(email);
+            if (cerrojo.validate(sello)) {
+                return encontrado;
+            }
+        } catch (RuntimeException e) {
+            // Datos inconsistentes por una escritura concurrente: se reintenta con bloqueo
+        }
+
+        sello = cerrojo.readLock();
+        try {
+            return buscarSinBloqueo(email);
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    /**
+     * Guarda un usuario usando su ID como clave (reemplaza si ya existe)
+     */
+    @Override
+    public void guardar(Usuario usuario) {
+        long sello = cerrojo.writeLock();
+        try {
+            guardarConBloqueo(usuario);
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+    }
+
+    /**
+     * Reemplazo atómico: se compara y guarda bajo el mismo bloqueo de escritura
+     */
+    @Override
+    public boolean reemplazar(Usuario anterior, Usuario nuevo) {
+        long sello = cerrojo.writeLock();
+        try {
+            long existente = indiceIds.buscar(anterior.getId());
+            if (existente < 0 || registros[(int) existente] != anterior) {
+                return false;    // Cambió mientras tanto
+            }
+            guardarConBloqueo(nuevo);
+            return true;
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+    }
+
+    /**
+     * Guarda o reemplaza un usuario; requiere el bloqueo de escritura
+     */
+    private void guardarConBloqueo(Usuario usuario) {
+        long existente = indiceIds.buscar(usuario.getId());
+        if (existente >= 0) {
+            // Reemplazo: si cambió el email se actualiza su entrada en el índice
+            Usuario anterior = registros[(int) existente];
+            if (!anterior.getEmail().equals(usuario.getEmail())) {
+                indiceEmails.eliminar(anterior.getEmail(), existente);
+                indiceEmails.insertar(usuario.getEmail(), existente);
+            }
+            registros[(int) existente] = usuario;
+            return;
+        }
+
+        if (cantidad == registros.length) {
+            registros = Arrays.copyOf(registros, registros.length * 2);
+        }
+        registros[cantidad] = usuario;
+        indiceIds.insertar(usuario.getId(), cantidad);
+        indiceEmails.insertar(usuario.getEmail(), cantidad);
+        cantidad++;
+    }
+
+    @Override
+    public boolean existeEmail(String email) {
+        return buscarPorEmail(email) != null;
+    }
+
+    /**
+     * Recorre los usuarios registrados hasta este momento
+     */
+    @Override
+    public Spliterator<Usuario> recorrer() {
+        long sello = cerrojo.readLock();
+        try {
+            return Arrays.spliterator(registros, 0, cantidad);
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    private Usuario buscarSinBloqueo(String email) {
+        long registro = indiceEmails.buscar(email);
+        return registro >= 0 ? leerRegistro(registro) : null;
+    }
+
+    /**
+     * Lee un registro; durante una lectura optimista el índice puede apuntar
+     * a un registro que aún no está visible, por eso se controla el rango
+     */
+    private Usuario leerRegistro(long registro) {
+        Usuario[] actuales = registros;
+        if (registro >= actuales.length || actuales[(int) registro] == null) {
+            throw new IllegalStateException("Registro no disponible: " + registro);
+        }
+        return actuales[(int) registro];
+    }
+}
@@ -1,19 +1,22 @@
 package usuario.implementaciones;
 
+import usuario.interfaces.IListadoUsuarios;
 import usuario.interfaces.IRepositorioUsuario;
 import usuario.modelo.Usuario;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementación de repositorio en memoria - PRINCIPIOS DIP y SRP
  * SRP: Solo se encarga de persistir usuarios
- * DIP: Implementa la interfaz IRepositorioUsuario
+ * DIP: Implementa las interfaces IRepositorioUsuario e IListadoUsuarios
  */
-public class RepositorioUsuarioMemoria implements IRepositorioUsuario {
+public class RepositorioUsuarioMemoria implements IRepositorioUsuario, IListadoUsuarios {
 
     // Map para almacenar usuarios en memoria (clave: ID, valor: Usuario)
-    private Map<String, Usuario> usuarios = new HashMap<>();
+    // ConcurrentHashMap permite recorrerlo en paralelo mientras se guardan usuarios
+    private Map<String, Usuario> usuarios = new ConcurrentHashMap<>();
 
     /**
      * Busca un usuario por email recorriendo todos los usuarios
@@ -47,4 +50,23 @@ public class RepositorioUsuarioMemoria implements IRepositorioUsuario {
         // Reutiliza buscarPorEmail y verifica si el resultado no es null
         return buscarPorEmail(email) != null;
     }
+
+    /**
+     * Reemplazo atómico por ID, sin recorrer todos los usuarios
+     * Usuario no redefine equals, así que replace() compara por identidad
+     */
+    @Override
+    public boolean reemplazar(Usuario anterior, Usuario nuevo) {
+        return usuarios.replace(anterior.getId(), anterior, nuevo);
+    }
+
+    /**
+     * Recorre todos los usuarios sin copiarlos
+     * El Spliterator de ConcurrentHashMap se divide en particiones y tolera
+     * modificaciones concurrentes (consistencia débil)
+     */
+    @Override
+    public Spliterator<Usuario> recorrer() {
+        return usuarios.values().spliterator();
+    }
 }
\ No newline at end of file
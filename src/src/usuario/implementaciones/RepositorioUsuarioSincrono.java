@@ -0,0 +1,38 @@
+package usuario.implementaciones;
+
+import usuario.interfaces.IRepositorioUsuario;
+import usuario.interfaces.IRepositorioUsuarioAsync;
+import usuario.modelo.Usuario;
+
+/**
+ * Adaptador asíncrono -> síncrono de repositorio - PRINCIPIOS DIP y LSP
+ * Permite usar un IRepositorioUsuarioAsync donde se espera un IRepositorioUsuario
+ */
+public class RepositorioUsuarioSincrono implements IRepositorioUsuario {
+
+    private IRepositorioUsuarioAsync repositorio;    // Implementación asíncrona adaptada
+
+    public RepositorioUsuarioSincrono(IRepositorioUsuarioAsync repositorio) {
+        this.repositorio = repositorio;
+    }
+
+    @Override
+    public Usuario buscarPorEmail(String email) {
+        return Futuros.esperar(repositorio.buscarPorEmail(email));
+    }
+
+    @Override
+    public void guardar(Usuario usuario) {
+        Futuros.esperar(repositorio.guardar(usuario));
+    }
+
+    @Override
+    public boolean existeEmail(String email) {
+        return Futuros.esperar(repositorio.existeEmail(email));
+    }
+
+    @Override
+    public boolean reemplazar(Usuario anterior, Usuario nuevo) {
+        return Futuros.esperar(repositorio.reemplazar(anterior, nuevo));
+    }
+}
@@ -0,0 +1,25 @@
+package usuario.interfaces;
+
+/**
+ * Excepción de cuota excedida - el inquilino superó sus solicitudes por segundo
+ * La operación no se ejecutó; a diferencia de un fallo real, puede
+ * reintentarse cuando la cuota se recupere
+ */
+public class CuotaExcedidaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String inquilino;
+
+    public CuotaExcedidaException(String inquilino) {
+        super("Cuota de solicitudes excedida para el inquilino " + inquilino);
+        this.inquilino = inquilino;
+    }
+
+    /**
+     * Inquilino que superó su cuota
+     */
+    public String getInquilino() {
+        return inquilino;
+    }
+}
@@ -0,0 +1,25 @@
+package usuario.interfaces;
+
+import java.io.IOException;
+
+/**
+ * Interfaz IAlmacenInquilinos - PRINCIPIO DIP
+ * Abstrae dónde se guardan los usuarios de cada inquilino (organización)
+ * mientras sus datos no están cargados en memoria
+ */
+public interface IAlmacenInquilinos {
+
+    /**
+     * Carga los usuarios guardados de un inquilino
+     * @param inquilino - Identificador del inquilino
+     * @param destino - Repositorio donde se agregan los usuarios (vacío si es nuevo)
+     */
+    void cargar(String inquilino, IRepositorioUsuario destino) throws IOException;
+
+    /**
+     * Guarda todos los usuarios de un inquilino antes de liberarlos de memoria
+     * @param inquilino - Identificador del inquilino
+     * @param origen - Usuarios a guardar
+     */
+    void guardar(String inquilino, IListadoUsuarios origen) throws IOException;
+}
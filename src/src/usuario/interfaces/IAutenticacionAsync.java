@@ -0,0 +1,24 @@
+package usuario.interfaces;
+
+import usuario.modelo.Usuario;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz IAutenticacionAsync - PRINCIPIO DIP
+ * Versión no bloqueante de IAutenticacion
+ * Los resultados se entregan al completarse el CompletableFuture
+ */
+public interface IAutenticacionAsync {
+
+    /**
+     * Autentica un usuario con email y contraseña
+     * @return Future con true si la autenticación es exitosa
+     */
+    CompletableFuture<Boolean> autenticar(String email, String password);
+
+    /**
+     * Obtiene el usuario actualmente autenticado
+     * @return Future con el usuario autenticado o null si no hay sesión activa
+     */
+    CompletableFuture<Usuario> obtenerUsuarioActual();
+}
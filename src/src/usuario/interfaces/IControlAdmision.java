@@ -0,0 +1,61 @@
+package usuario.interfaces;
+
+/**
+ * Interfaz IControlAdmision - PRINCIPIOS DIP y OCP
+ * Decide si una operación del servicio puede ejecutarse ahora o debe
+ * rechazarse para proteger al resto bajo sobrecarga
+ */
+public interface IControlAdmision {
+
+    /**
+     * Clases de operación, de mayor a menor prioridad
+     */
+    enum Clase {
+        LECTURA,      // puedeAcceder, verificaciones por lote y verPerfil (baratas y frecuentes)
+        USUARIO,      // cambiarPassword, actualizarPerfil
+        ADMIN         // crearUsuario, eliminarUsuario, cambiarRolUsuario (las más costosas)
+    }
+
+    /**
+     * Control por defecto: admite todas las operaciones
+     */
+    IControlAdmision SIN_LIMITE = new IControlAdmision() {
+        @Override
+        public long entrar(Clase clase) {
+            return 0;
+        }
+
+        @Override
+        public long intentarEntrar(Clase clase) {
+            return 0;
+        }
+
+        @Override
+        public void salir(Clase clase, long entrada) {
+            // Nada que liberar
+        }
+    };
+
+    /**
+     * Reserva un lugar para una operación; puede esperar brevemente si su clase lo permite
+     * @param clase - Clase de la operación
+     * @return Marca de entrada que debe pasarse a salir()
+     * @throws SobrecargaException si la operación no se admite
+     */
+    long entrar(Clase clase);
+
+    /**
+     * Igual que entrar(), pero nunca espera: si no hay lugar libre se rechaza en el acto
+     * Para hilos que no deben bloquearse (ej: los que completan un CompletableFuture)
+     * @return Marca de entrada que debe pasarse a salir()
+     * @throws SobrecargaException si la operación no se admite
+     */
+    long intentarEntrar(Clase clase);
+
+    /**
+     * Libera el lugar reservado (llamar siempre, aunque la operación falle)
+     * @param clase - Clase de la operación
+     * @param entrada - Valor devuelto por entrar()
+     */
+    void salir(Clase clase, long entrada);
+}
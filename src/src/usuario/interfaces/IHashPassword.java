@@ -0,0 +1,45 @@
+package usuario.interfaces;
+
+/**
+ * Interfaz IHashPassword - PRINCIPIO DIP
+ * Abstrae cómo se almacenan las contraseñas
+ * El valor almacenado incluye el algoritmo y su costo, así se puede
+ * subir el costo con el tiempo sin invalidar las contraseñas existentes
+ */
+public interface IHashPassword {
+
+    /**
+     * Genera el valor a almacenar para una contraseña con el costo actual
+     * @param password - Contraseña en texto plano
+     * @return Hash con cabecera de algoritmo y costo
+     */
+    String generar(String password);
+
+    /**
+     * Verifica una contraseña contra el valor almacenado
+     * Acepta también valores antiguos en texto plano
+     * @param password - Contraseña ingresada
+     * @param almacenado - Valor guardado en el usuario
+     * @return true si la contraseña es correcta
+     */
+    boolean verificar(String password, String almacenado);
+
+    /**
+     * Indica si el valor almacenado es un hash reconocido (y no texto plano)
+     */
+    boolean esHash(String almacenado);
+
+    /**
+     * Indica si el valor almacenado usa un algoritmo o costo desactualizado
+     * @return true si conviene volver a generarlo
+     */
+    boolean requiereActualizacion(String almacenado);
+
+    /**
+     * Lleva un valor almacenado al costo actual sin conocer la contraseña
+     * (para migraciones en segundo plano de cuentas que no inician sesión)
+     * @param almacenado - Texto plano o hash con costo desactualizado
+     * @return Valor equivalente, verificable con la misma contraseña, con el costo actual
+     */
+    String actualizar(String almacenado);
+}
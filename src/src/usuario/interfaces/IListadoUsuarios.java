@@ -0,0 +1,19 @@
+package usuario.interfaces;
+
+import usuario.modelo.Usuario;
+import java.util.Spliterator;
+
+/**
+ * Interfaz IListadoUsuarios - PRINCIPIOS ISP y DIP
+ * Recorrido masivo de usuarios para reportes y exportaciones
+ * Separada de IRepositorioUsuario para que solo la implementen
+ * los repositorios capaces de recorrer todos sus datos
+ */
+public interface IListadoUsuarios {
+
+    /**
+     * Recorre todos los usuarios almacenados
+     * @return Spliterator divisible en particiones para procesarlas en paralelo
+     */
+    Spliterator<Usuario> recorrer();
+}
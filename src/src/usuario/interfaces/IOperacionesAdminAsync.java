@@ -0,0 +1,32 @@
+package usuario.interfaces;
+
+import usuario.modelo.Usuario;
+import usuario.modelo.Rol;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz IOperacionesAdminAsync - PRINCIPIO ISP
+ * Versión no bloqueante de IOperacionesAdmin
+ * Los errores de permisos o validación completan el Future con la excepción
+ * original (ej: SecurityException), no con CompletionException
+ */
+public interface IOperacionesAdminAsync {
+
+    /**
+     * Crea un nuevo usuario en el sistema
+     * Solo administradores pueden usar esta función
+     */
+    CompletableFuture<Void> crearUsuario(Usuario usuario);
+
+    /**
+     * Elimina un usuario del sistema
+     * Solo administradores pueden usar esta función
+     */
+    CompletableFuture<Void> eliminarUsuario(String id);
+
+    /**
+     * Cambia el rol de un usuario existente
+     * Solo administradores pueden usar esta función
+     */
+    CompletableFuture<Void> cambiarRolUsuario(String id, Rol nuevoRol);
+}
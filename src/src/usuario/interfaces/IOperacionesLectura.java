@@ -1,6 +1,9 @@
 package usuario.interfaces;
 
 import usuario.modelo.Usuario;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Interfaz IOperacionesLectura - PRINCIPIO ISP
@@ -17,4 +20,18 @@ public interface IOperacionesLectura {
      * Verifica si el usuario puede acceder a un recurso
      */
     boolean puedeAcceder(String recurso);
+
+    /**
+     * Verifica varios recursos en una sola llamada (ej: todos los ítems de un menú)
+     * @param recursos - Recursos a verificar, en orden de iteración
+     * @return Bit i encendido si el usuario puede acceder al i-ésimo recurso
+     */
+    BitSet puedeAccederTodos(Collection<String> recursos);
+
+    /**
+     * Filtra los recursos a los que el usuario puede acceder
+     * @param recursos - Recursos candidatos
+     * @return Recursos accesibles, en el mismo orden recibido
+     */
+    List<String> filtrarAccesibles(Collection<String> recursos);
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package usuario.interfaces;
+
+import usuario.modelo.Usuario;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz IOperacionesLecturaAsync - PRINCIPIO ISP
+ * Versión no bloqueante de IOperacionesLectura
+ */
+public interface IOperacionesLecturaAsync {
+
+    /**
+     * Permite ver el perfil del usuario actual
+     */
+    CompletableFuture<Usuario> verPerfil();
+
+    /**
+     * Verifica si el usuario puede acceder a un recurso
+     */
+    CompletableFuture<Boolean> puedeAcceder(String recurso);
+
+    /**
+     * Verifica varios recursos en una sola llamada
+     * @return Future con el bit i encendido si puede acceder al i-ésimo recurso
+     */
+    CompletableFuture<BitSet> puedeAccederTodos(Collection<String> recursos);
+
+    /**
+     * Filtra los recursos a los que el usuario puede acceder
+     */
+    CompletableFuture<List<String>> filtrarAccesibles(Collection<String> recursos);
+}
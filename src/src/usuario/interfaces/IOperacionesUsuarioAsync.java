@@ -0,0 +1,20 @@
+package usuario.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz IOperacionesUsuarioAsync - PRINCIPIO ISP
+ * Versión no bloqueante de IOperacionesUsuario
+ */
+public interface IOperacionesUsuarioAsync {
+
+    /**
+     * Permite al usuario cambiar su contraseña
+     */
+    CompletableFuture<Void> cambiarPassword(String nuevaPassword);
+
+    /**
+     * Permite al usuario actualizar su perfil
+     */
+    CompletableFuture<Void> actualizarPerfil(String nombre, String email);
+}
@@ -0,0 +1,24 @@
+package usuario.interfaces;
+
+import usuario.modelo.Rol;
+
+/**
+ * Interfaz IPoliticaAcceso - PRINCIPIOS DIP y OCP
+ * Abstrae la decisión de acceso de un rol a un recurso
+ * Permite reemplazar la lógica de cada Rol por reglas externas
+ */
+public interface IPoliticaAcceso {
+
+    /**
+     * Política por defecto: delega en la lógica propia de cada rol
+     */
+    IPoliticaAcceso POR_ROL = (rol, recurso) -> rol.puedeAcceder(recurso);
+
+    /**
+     * Decide si un rol puede acceder a un recurso
+     * @param rol - Rol del usuario
+     * @param recurso - Recurso solicitado
+     * @return true si el acceso está permitido
+     */
+    boolean puedeAcceder(Rol rol, String recurso);
+}
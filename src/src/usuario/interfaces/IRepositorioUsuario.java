@@ -27,4 +27,14 @@ public interface IRepositorioUsuario {
      * @return true si el email ya está registrado
      */
     boolean existeEmail(String email);
+
+    /**
+     * Reemplaza un usuario solo si el guardado sigue siendo el mismo objeto
+     * Permite actualizaciones en segundo plano sin pisar cambios recientes
+     * La comparación y el reemplazo deben ser atómicos
+     * @param anterior - Usuario leído previamente
+     * @param nuevo - Usuario con el mismo ID que lo reemplaza
+     * @return true si se reemplazó
+     */
+    boolean reemplazar(Usuario anterior, Usuario nuevo);
 }
\ No newline at end of file
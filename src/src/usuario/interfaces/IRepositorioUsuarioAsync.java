@@ -0,0 +1,36 @@
+package usuario.interfaces;
+
+import usuario.modelo.Usuario;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interfaz IRepositorioUsuarioAsync - PRINCIPIO DIP
+ * Versión no bloqueante de IRepositorioUsuario
+ */
+public interface IRepositorioUsuarioAsync {
+
+    /**
+     * Busca un usuario por su email
+     * @return Future con el usuario encontrado o null si no existe
+     */
+    CompletableFuture<Usuario> buscarPorEmail(String email);
+
+    /**
+     * Guarda un usuario en el sistema de persistencia
+     * @return Future que se completa cuando el usuario quedó guardado
+     */
+    CompletableFuture<Void> guardar(Usuario usuario);
+
+    /**
+     * Verifica si existe un email en el sistema
+     * @return Future con true si el email ya está registrado
+     */
+    CompletableFuture<Boolean> existeEmail(String email);
+
+    /**
+     * Reemplaza un usuario solo si el guardado sigue siendo el mismo objeto
+     * (ver IRepositorioUsuario.reemplazar)
+     * @return Future con true si se reemplazó
+     */
+    CompletableFuture<Boolean> reemplazar(Usuario anterior, Usuario nuevo);
+}
@@ -0,0 +1,25 @@
+package usuario.interfaces;
+
+/**
+ * Excepción de sobrecarga - la operación se rechazó sin ejecutarse
+ * A diferencia de SecurityException o IllegalArgumentException, no indica un
+ * error del usuario: la misma solicitud puede reintentarse más tarde
+ */
+public class SobrecargaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IControlAdmision.Clase clase;
+
+    public SobrecargaException(IControlAdmision.Clase clase, String mensaje) {
+        super(mensaje);
+        this.clase = clase;
+    }
+
+    /**
+     * Clase de la operación rechazada
+     */
+    public IControlAdmision.Clase getClase() {
+        return clase;
+    }
+}
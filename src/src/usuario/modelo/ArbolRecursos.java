@@ -0,0 +1,201 @@
+package usuario.modelo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Árbol compilado de permisos sobre recursos jerárquicos - PRINCIPIO SRP
+ * Los recursos son rutas separadas por '/' (ej: admin_panel/users/export).
+ * Una regla sobre una ruta aplica a todos sus sub-recursos, y la regla
+ * más profunda que coincide es la que decide.
+ *
+ * La consulta recorre la ruta una sola vez (O(profundidad)), trabaja
+ * directamente sobre el CharSequence recibido y no crea objetos.
+ * Las rutas con segmentos vacíos, "." o ".." se deniegan siempre: no se
+ * normalizan, así "login/../admin_panel" no hereda la decisión de "login".
+ */
+public final class ArbolRecursos {
+
+    private static final byte SIN_DECISION = -1;
+    private static final byte DENEGAR = 0;
+    private static final byte PERMITIR = 1;
+
+    private final Nodo raiz;    // Nodo raíz (su decisión es la decisión por defecto)
+
+    private ArbolRecursos(Nodo raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * Compila un árbol a partir de reglas por ruta
+     * @param porDefecto - Decisión para rutas sin ninguna regla aplicable
+     * @param reglas - Ruta del recurso y si se permite (true) o deniega (false)
+     * @return Árbol inmutable listo para consultas concurrentes
+     */
+    public static ArbolRecursos compilar(boolean porDefecto, Map<String, Boolean> reglas) {
+        NodoConstruccion raiz = new NodoConstruccion();
+        raiz.decision = porDefecto ? PERMITIR : DENEGAR;
+
+        for (Map.Entry<String, Boolean> regla : reglas.entrySet()) {
+            NodoConstruccion nodo = raiz;
+            String ruta = regla.getKey();
+            int i = 0;
+            while (i < ruta.length()) {
+                int fin = finSegmento(ruta, i);
+                if (esRelativo(ruta, i, fin)) {
+                    throw new IllegalArgumentException("Ruta de regla inválida: " + ruta);
+                }
+                if (fin > i) {
+                    nodo = nodo.hijos.computeIfAbsent(ruta.substring(i, fin), s -> new NodoConstruccion());
+                }
+                i = fin + 1;
+            }
+            nodo.decision = regla.getValue() ? PERMITIR : DENEGAR;
+        }
+        return new ArbolRecursos(raiz.compilar());
+    }
+
+    /**
+     * Decide el acceso a un recurso
+     * @param recurso - Ruta del recurso (ej: admin_panel/users/export)
+     * @return true si la regla más profunda que coincide lo permite; false si
+     *         la ruta tiene un segmento vacío, "." o ".." (ej: "a//b", "a/../b", "a/")
+     */
+    public boolean permite(CharSequence recurso) {
+        Nodo nodo = raiz;
+        byte decision = raiz.decision;
+        int largo = recurso.length();
+        int i = 0;
+
+        do {
+            // Calcula el hash del segmento mientras lo recorre (mismo hash que String)
+            int inicio = i;
+            int hash = 0;
+            char c;
+            while (i < largo && (c = recurso.charAt(i)) != '/') {
+                hash = 31 * hash + c;
+                i++;
+            }
+            if (i == inicio || esRelativo(recurso, inicio, i)) {
+                return false;    // Se revisa toda la ruta, aunque ya no haya reglas más profundas
+            }
+            if (nodo != null) {
+                nodo = nodo.hijo(recurso, inicio, i, hash);
+                if (nodo != null && nodo.decision != SIN_DECISION) {
+                    decision = nodo.decision;
+                }
+            }
+            i++;    // Salta el separador
+        } while (i <= largo);
+        return decision == PERMITIR;
+    }
+
+    /**
+     * Indica si recurso[inicio, fin) es "." o ".."
+     */
+    private static boolean esRelativo(CharSequence ruta, int inicio, int fin) {
+        int largo = fin - inicio;
+        return (largo == 1 || largo == 2) && ruta.charAt(inicio) == '.' && ruta.charAt(fin - 1) == '.';
+    }
+
+    /**
+     * Posición del siguiente '/' a partir de inicio (o el final de la ruta)
+     */
+    private static int finSegmento(CharSequence ruta, int inicio) {
+        int i = inicio;
+        while (i < ruta.length() && ruta.charAt(i) != '/') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Nodo compilado: hijos en tabla hash de direccionamiento abierto
+     */
+    private static final class Nodo {
+        private final byte decision;
+        private final String[] claves;    // Segmento de cada hijo (null = posición libre)
+        private final int[] hashes;       // Hash de cada segmento
+        private final Nodo[] hijos;
+        private final int mascara;
+
+        private Nodo(byte decision, Map<String, Nodo> hijosCompilados) {
+            this.decision = decision;
+            if (hijosCompilados.isEmpty()) {
+                claves = null;
+                hashes = null;
+                hijos = null;
+                mascara = 0;
+                return;
+            }
+
+            // Capacidad potencia de dos con ocupación máxima del 50%
+            int capacidad = Integer.highestOneBit(hijosCompilados.size() * 2 - 1) << 1;
+            claves = new String[capacidad];
+            hashes = new int[capacidad];
+            hijos = new Nodo[capacidad];
+            mascara = capacidad - 1;
+
+            for (Map.Entry<String, Nodo> hijo : hijosCompilados.entrySet()) {
+                int hash = hijo.getKey().hashCode();
+                int posicion = mezclar(hash) & mascara;
+                while (claves[posicion] != null) {
+                    posicion = (posicion + 1) & mascara;
+                }
+                claves[posicion] = hijo.getKey();
+                hashes[posicion] = hash;
+                hijos[posicion] = hijo.getValue();
+            }
+        }
+
+        /**
+         * Busca el hijo cuyo segmento coincide con recurso[inicio, fin)
+         */
+        private Nodo hijo(CharSequence recurso, int inicio, int fin, int hash) {
+            if (claves == null) {
+                return null;
+            }
+            int posicion = mezclar(hash) & mascara;
+            String clave;
+            while ((clave = claves[posicion]) != null) {
+                if (hashes[posicion] == hash && coincide(clave, recurso, inicio, fin)) {
+                    return hijos[posicion];
+                }
+                posicion = (posicion + 1) & mascara;
+            }
+            return null;
+        }
+
+        private static boolean coincide(String clave, CharSequence recurso, int inicio, int fin) {
+            if (clave.length() != fin - inicio) {
+                return false;
+            }
+            for (int i = 0; i < clave.length(); i++) {
+                if (clave.charAt(i) != recurso.charAt(inicio + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mezclar(int hash) {
+            return hash ^ (hash >>> 16);    // Reparte mejor los bits bajos
+        }
+    }
+
+    /**
+     * Nodo mutable usado solo mientras se compila el árbol
+     */
+    private static final class NodoConstruccion {
+        private byte decision = SIN_DECISION;
+        private final Map<String, NodoConstruccion> hijos = new LinkedHashMap<>();
+
+        private Nodo compilar() {
+            Map<String, Nodo> compilados = new LinkedHashMap<>();
+            for (Map.Entry<String, NodoConstruccion> hijo : hijos.entrySet()) {
+                compilados.put(hijo.getKey(), hijo.getValue().compilar());
+            }
+            return new Nodo(decision, compilados);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package usuario.modelo;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clase EstadisticasUsuarios - PRINCIPIO SRP
+ * Responsabilidad única: Transportar los agregados de un reporte de usuarios
+ */
+public class EstadisticasUsuarios {
+    private final long totalUsuarios;              // Usuarios recorridos
+    private final Map<String, Long> porRol;        // Cantidad de usuarios por nombre de rol
+    private final long cumplenPolitica;            // Usuarios con contraseña válida
+    private final long sinVerificar;               // Usuarios con contraseña hasheada (no evaluable)
+    private final Set<String> emailsDuplicados;    // Emails registrados más de una vez
+
+    public EstadisticasUsuarios(long totalUsuarios, Map<String, Long> porRol,
+                                long cumplenPolitica, long sinVerificar, Set<String> emailsDuplicados) {
+        this.totalUsuarios = totalUsuarios;
+        this.porRol = Collections.unmodifiableMap(porRol);
+        this.cumplenPolitica = cumplenPolitica;
+        this.sinVerificar = sinVerificar;
+        this.emailsDuplicados = Collections.unmodifiableSet(emailsDuplicados);
+    }
+
+    public long getTotalUsuarios() {
+        return totalUsuarios;
+    }
+
+    public Map<String, Long> getPorRol() {
+        return porRol;
+    }
+
+    public long getCumplenPolitica() {
+        return cumplenPolitica;
+    }
+
+    public long getNoCumplenPolitica() {
+        return totalUsuarios - cumplenPolitica - sinVerificar;
+    }
+
+    /**
+     * Usuarios cuya contraseña está hasheada: se validó al crearla, pero ya no se puede evaluar
+     */
+    public long getSinVerificar() {
+        return sinVerificar;
+    }
+
+    public Set<String> getEmailsDuplicados() {
+        return emailsDuplicados;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("total=%d, porRol=%s, cumplenPolitica=%d, noCumplenPolitica=%d, sinVerificar=%d, emailsDuplicados=%s",
+                totalUsuarios, porRol, cumplenPolitica, getNoCumplenPolitica(), sinVerificar, emailsDuplicados);
+    }
+}
@@ -10,6 +10,7 @@ public abstract class Rol {
     // Atributos protegidos para que las subclases puedan acceder
     protected String nombre;        // Nombre del rol (ej: "Administrador")
     protected int nivelAcceso;      // Nivel numérico de acceso (1=bajo, 3=alto)
+    protected ArbolRecursos permisos; // Permisos jerárquicos compilados (opcional)
 
     /**
      * Constructor protegido para roles
@@ -21,6 +22,17 @@ public abstract class Rol {
         this.nivelAcceso = nivelAcceso; // Establece el nivel de acceso
     }
 
+    /**
+     * Constructor protegido para roles con permisos jerárquicos
+     * @param nombre - Nombre descriptivo del rol
+     * @param nivelAcceso - Nivel numérico de permisos
+     * @param permisos - Árbol compilado de permisos por ruta de recurso
+     */
+    protected Rol(String nombre, int nivelAcceso, ArbolRecursos permisos) {
+        this(nombre, nivelAcceso);
+        this.permisos = permisos;       // Establece los permisos por ruta
+    }
+
     // Métodos getter públicos
     public String getNombre() {
         return nombre;                  // Retorna el nombre del rol
@@ -38,4 +50,15 @@ public abstract class Rol {
      * @return true si tiene permiso, false si no
      */
     public abstract boolean puedeAcceder(String recurso);
+
+    /**
+     * Verifica el acceso a un recurso jerárquico (ej: admin_panel/users/export)
+     * Usa el árbol compilado si el rol lo define, sin crear objetos;
+     * si no, delega en puedeAcceder
+     * @param recurso - Ruta del recurso, puede ser un StringBuilder u otro CharSequence
+     * @return true si tiene permiso, false si no
+     */
+    public boolean puedeAccederRuta(CharSequence recurso) {
+        return permisos != null ? permisos.permite(recurso) : puedeAcceder(recurso.toString());
+    }
 }
\ No newline at end of file
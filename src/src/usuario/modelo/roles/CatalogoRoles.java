@@ -0,0 +1,52 @@
+package usuario.modelo.roles;
+
+import usuario.modelo.Rol;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo de roles - PRINCIPIOS OCP y SRP
+ * SRP: Única responsabilidad de traducir entre el código de un rol y su instancia
+ * OCP: Nuevos roles se registran sin modificar esta clase
+ */
+public final class CatalogoRoles {
+
+    // Roles registrados por código (el código es el nombre del rol)
+    private static final Map<String, Rol> roles = new ConcurrentHashMap<>();
+
+    // Registro de los roles incluidos en el sistema
+    static {
+        registrar(new Administrador());
+        registrar(new UsuarioRegular());
+        registrar(new Moderador());
+        registrar(new Invitado());
+    }
+
+    private CatalogoRoles() {
+        // Clase utilitaria, no se instancia
+    }
+
+    /**
+     * Registra un rol para poder reconstruirlo a partir de su código
+     * Los roles no tienen estado, por lo que se comparte una única instancia
+     */
+    public static void registrar(Rol rol) {
+        roles.put(codigoDe(rol), rol);
+    }
+
+    /**
+     * Obtiene el código con el que se identifica un rol (ej: en tokens o configuración)
+     */
+    public static String codigoDe(Rol rol) {
+        return rol.getNombre();
+    }
+
+    /**
+     * Busca un rol por su código
+     * @param codigo - Código del rol
+     * @return Rol registrado o null si el código no existe
+     */
+    public static Rol buscar(String codigo) {
+        return codigo != null ? roles.get(codigo) : null;
+    }
+}
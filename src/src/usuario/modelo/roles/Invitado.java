@@ -1,20 +1,27 @@
 package usuario.modelo.roles;
 
+import usuario.modelo.ArbolRecursos;
 import usuario.modelo.Rol;
+import java.util.Map;
 
 /**
  * Clase Invitado - Acceso más restrictivo
  */
 public class Invitado extends Rol {
 
+    // Todo denegado salvo contenido público y login (compilado una sola vez)
+    private static final ArbolRecursos PERMISOS = ArbolRecursos.compilar(false, Map.of(
+            "public_content", true,    // Puede ver contenido público
+            "login", true));           // Puede acceder al login
+
     public Invitado() {
-        super("Invitado", 1);    // Nivel más bajo de acceso
+        super("Invitado", 1, PERMISOS);    // Nivel más bajo de acceso
     }
 
     @Override
     public boolean puedeAcceder(String recurso) {
         // Invitado solo puede ver contenido público y hacer login
-        return recurso.equals("public_content") ||    // Puede ver contenido público
-                recurso.equals("login");               // Puede acceder al login
+        // Todo lo demás queda denegado por defecto
+        return permisos.permite(recurso);
     }
 }
\ No newline at end of file
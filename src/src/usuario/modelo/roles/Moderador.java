@@ -1,6 +1,8 @@
 package usuario.modelo.roles;
 
+import usuario.modelo.ArbolRecursos;
 import usuario.modelo.Rol;
+import java.util.Map;
 
 /**
  * Clase Moderador - PRINCIPIO OCP
@@ -8,14 +10,19 @@ import usuario.modelo.Rol;
  */
 public class Moderador extends Rol {
 
+    // Todo permitido salvo usuarios y configuración (compilado una sola vez)
+    private static final ArbolRecursos PERMISOS = ArbolRecursos.compilar(true, Map.of(
+            "user_management", false,     // No puede gestionar usuarios
+            "system_config", false));     // No puede cambiar configuración
+
     public Moderador() {
-        super("Moderador", 2);    // Mismo nivel que usuario regular
+        super("Moderador", 2, PERMISOS);    // Mismo nivel que usuario regular
     }
 
     @Override
     public boolean puedeAcceder(String recurso) {
         // Moderador puede gestionar contenido pero no usuarios ni configuración
-        return !recurso.equals("user_management") &&     // No puede gestionar usuarios
-                !recurso.equals("system_config");         // No puede cambiar configuración
+        // Las restricciones aplican también a los sub-recursos
+        return permisos.permite(recurso);
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package usuario.modelo.roles;
 
+import usuario.modelo.ArbolRecursos;
 import usuario.modelo.Rol;
+import java.util.Map;
 
 /**
  * Clase UsuarioRegular - PRINCIPIOS OCP y LSP
@@ -8,11 +10,16 @@ import usuario.modelo.Rol;
  */
 public class UsuarioRegular extends Rol {
 
+    // Todo permitido salvo las ramas administrativas (compilado una sola vez)
+    private static final ArbolRecursos PERMISOS = ArbolRecursos.compilar(true, Map.of(
+            "admin_panel", false,          // No puede acceder al panel admin ni a sus secciones
+            "user_management", false));    // No puede gestionar usuarios
+
     /**
      * Constructor del Usuario Regular
      */
     public UsuarioRegular() {
-        super("Usuario", 2);    // Nombre: "Usuario", Nivel: 2 (medio)
+        super("Usuario", 2, PERMISOS);    // Nombre: "Usuario", Nivel: 2 (medio)
     }
 
     /**
@@ -23,8 +30,7 @@ public class UsuarioRegular extends Rol {
     @Override
     public boolean puedeAcceder(String recurso) {
         // Usuario regular NO puede acceder a funciones administrativas
-        // equals() compara el contenido de las cadenas
-        return !recurso.equals("admin_panel") &&      // No puede acceder al panel admin
-                !recurso.equals("user_management");    // No puede gestionar usuarios
+        // ni a ningún sub-recurso de ellas (ej: admin_panel/users/export)
+        return permisos.permite(recurso);
     }
 }
\ No newline at end of file
@@ -0,0 +1,475 @@
+package usuario.principal;
+
+import usuario.interfaces.*;
+import usuario.implementaciones.*;
+import usuario.modelo.Rol;
+import usuario.modelo.Usuario;
+import usuario.modelo.roles.*;
+import usuario.servicio.ServicioControlUsuarios;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Generador de carga basado en los escenarios de Main
+ * Crea N usuarios repartidos entre los cuatro roles y reproduce una mezcla
+ * ponderada de login, puedeAcceder, cambiarPassword y crearUsuario desde
+ * hilos virtuales a una tasa objetivo. Al terminar informa el throughput
+ * y la latencia p50/p99/p999 de cada operación.
+ *
+ * La latencia se mide desde el instante en que la operación debía iniciar,
+ * por lo que incluye la espera cuando el sistema no alcanza la tasa pedida.
+ * Con admision=adaptativa las operaciones rechazadas por sobrecarga se cuentan
+ * aparte y no entran en los percentiles.
+ *
+ * Uso (parámetros opcionales clave=valor):
+ *   java usuario.principal.GeneradorCarga usuarios=10000 tasa=20000 duracion=10 calentamiento=2
+ *        mezcla=login:30,puedeAcceder:60,cambiarPassword:5,crearUsuario:5
+ *        repositorio=memoria|indexado autenticacion=basica|oauth|token admision=ninguna|adaptativa
+ */
+public class GeneradorCarga {
+
+    private static final Logger logger = Logger.getLogger(GeneradorCarga.class.getName());
+
+    private static final double TASA_MINIMA = 1e-3;                   // Un intervalo de a lo sumo 1000 s
+    private static final double TASA_MAXIMA = 1e9;                    // Un intervalo de al menos 1 ns
+    private static final Duration TIEMPO_MAXIMO = Duration.ofDays(1); // Evita desbordar los instantes en ns
+
+    // Recursos consultados en puedeAcceder, incluidos sub-recursos jerárquicos
+    private static final String[] RECURSOS = {
+            "public_content", "login", "admin_panel", "user_management", "system_config",
+            "admin_panel/users/export", "public_content/news/today", "user_management/roles"
+    };
+
+    // Configuración inicial del logger (igual que Main)
+    static {
+        configurarLogger();
+    }
+
+    /**
+     * Operaciones que forman la mezcla de carga
+     */
+    private enum Operacion {
+        LOGIN("login"),
+        ACCESO("puedeAcceder"),
+        PASSWORD("cambiarPassword"),
+        CREAR("crearUsuario");
+
+        private final String nombre;
+
+        Operacion(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    // Parámetros de la ejecución
+    private final int cantidadUsuarios;
+    private final double tasa;                    // Operaciones por segundo
+    private final Duration duracion;
+    private final Duration calentamiento;
+    private final String tipoAutenticacion;
+    private final int[] pesosAcumulados = new int[Operacion.values().length];
+
+    // Sistema bajo prueba
+    private final IRepositorioUsuario repositorio;
+    private final IValidadorPassword validador = new ValidadorPasswordSeguro();
+    private final MotorTokens motorTokens = new MotorTokens(Duration.ofHours(1));
+    private final IControlAdmision admision;             // Compartido por todas las sesiones
+    private final Usuario[] usuarios;
+    private final String[] credenciales;                 // Contraseña o token de cada usuario
+    private final List<ServicioControlUsuarios> sesiones = new ArrayList<>();
+    private final List<ServicioControlUsuarios> sesionesAdmin = new ArrayList<>();
+    private final AtomicLong nuevosUsuarios = new AtomicLong();
+
+    // Mediciones por operación
+    private Histograma[] histogramas;
+    private LongAdder[] errores;
+    private LongAdder[] rechazos;
+
+    public GeneradorCarga(Map<String, String> config) {
+        this.cantidadUsuarios = Integer.parseInt(config.getOrDefault("usuarios", "10000"));
+        this.tasa = Double.parseDouble(config.getOrDefault("tasa", "20000"));
+        this.duracion = Duration.ofSeconds(Long.parseLong(config.getOrDefault("duracion", "10")));
+        this.calentamiento = Duration.ofSeconds(Long.parseLong(config.getOrDefault("calentamiento", "2")));
+        validarParametros();
+        this.tipoAutenticacion = config.getOrDefault("autenticacion", "basica");
+        this.repositorio = crearRepositorio(config.getOrDefault("repositorio", "memoria"));
+        this.admision = crearAdmision(config.getOrDefault("admision", "ninguna"));
+        leerMezcla(config.getOrDefault("mezcla", "login:30,puedeAcceder:60,cambiarPassword:5,crearUsuario:5"));
+
+        this.usuarios = new Usuario[cantidadUsuarios];
+        this.credenciales = new String[cantidadUsuarios];
+    }
+
+    /**
+     * Rechaza parámetros con los que la generación no terminaría o desbordaría
+     * (ej: tasa > 1e9 da un intervalo de 0 ns; una tasa ínfima satura el intervalo y desborda n * intervalo)
+     */
+    private void validarParametros() {
+        if (cantidadUsuarios < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un usuario: usuarios=" + cantidadUsuarios);
+        }
+        if (!(tasa >= TASA_MINIMA && tasa <= TASA_MAXIMA)) {    // También rechaza NaN
+            throw new IllegalArgumentException(String.format("La tasa debe estar entre %s y %.0f: tasa=%s",
+                    TASA_MINIMA, TASA_MAXIMA, tasa));
+        }
+        if (duracion.isZero() || duracion.isNegative() || duracion.compareTo(TIEMPO_MAXIMO) > 0) {
+            throw new IllegalArgumentException(String.format("La duración debe estar entre 1 y %d s: duracion=%d",
+                    TIEMPO_MAXIMO.getSeconds(), duracion.getSeconds()));
+        }
+        if (calentamiento.isNegative() || calentamiento.compareTo(TIEMPO_MAXIMO) > 0) {
+            throw new IllegalArgumentException(String.format("El calentamiento debe estar entre 0 y %d s: calentamiento=%d",
+                    TIEMPO_MAXIMO.getSeconds(), calentamiento.getSeconds()));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> config = new HashMap<>();
+        for (String argumento : args) {
+            int igual = argumento.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Parámetro inválido (se espera clave=valor): " + argumento);
+            }
+            config.put(argumento.substring(0, igual), argumento.substring(igual + 1));
+        }
+        new GeneradorCarga(config).ejecutar();
+    }
+
+    /**
+     * Prepara los datos, calienta el sistema y ejecuta la medición
+     */
+    public void ejecutar() throws InterruptedException {
+        // Los registros por operación del servicio distorsionarían la medición
+        Logger.getLogger("usuario.servicio").setLevel(Level.WARNING);
+        Logger.getLogger("usuario.implementaciones").setLevel(Level.WARNING);
+
+        logger.info(String.format("=== GENERADOR DE CARGA: %d usuarios, %.0f ops/s, autenticación %s ===",
+                cantidadUsuarios, tasa, tipoAutenticacion));
+        crearUsuarios();
+        crearSesiones();
+
+        if (!calentamiento.isZero()) {
+            logger.info(String.format("Calentamiento durante %d s...", calentamiento.getSeconds()));
+            generar(calentamiento);
+        }
+
+        logger.info(String.format("Midiendo durante %d s...", duracion.getSeconds()));
+        long inicio = System.nanoTime();
+        generar(duracion);
+        informar((System.nanoTime() - inicio) / 1e9);
+    }
+
+    /**
+     * Crea los usuarios repartidos en los cuatro roles (como los escenarios de Main)
+     */
+    private void crearUsuarios() {
+        Rol[] roles = {new Administrador(), new UsuarioRegular(), new Moderador(), new Invitado()};
+        for (int i = 0; i < cantidadUsuarios; i++) {
+            Usuario usuario = new Usuario(Integer.toString(i), "Usuario " + i,
+                    "usuario" + i + "@carga.test", "Carga" + i + "Pass", roles[i % roles.length]);
+            repositorio.guardar(usuario);
+            usuarios[i] = usuario;
+            credenciales[i] = credencialDe(usuario);
+        }
+        logger.info(String.format("✓ %d usuarios creados", cantidadUsuarios));
+    }
+
+    /**
+     * Sesiones ya autenticadas que comparten los hilos virtuales
+     * Solo se leen durante la carga, así que pueden usarse concurrentemente
+     */
+    private void crearSesiones() {
+        int cantidad = Math.min(cantidadUsuarios, 1024);
+        for (int i = 0; i < cantidad; i++) {
+            IAutenticacion autenticacion = crearAutenticacion();
+            if (!autenticacion.autenticar(usuarios[i].getEmail(), credenciales[i])) {
+                throw new IllegalStateException("No se pudo autenticar al usuario " + usuarios[i].getEmail());
+            }
+            ServicioControlUsuarios servicio = new ServicioControlUsuarios(autenticacion, repositorio, validador,
+                    IPoliticaAcceso.POR_ROL, admision);
+            sesiones.add(servicio);
+            if (usuarios[i].getRol() instanceof Administrador) {
+                sesionesAdmin.add(servicio);
+            }
+        }
+    }
+
+    /**
+     * Lanza operaciones a la tasa objetivo durante el tiempo indicado
+     */
+    private void generar(Duration tiempo) throws InterruptedException {
+        histogramas = new Histograma[Operacion.values().length];
+        errores = new LongAdder[Operacion.values().length];
+        rechazos = new LongAdder[Operacion.values().length];
+        for (int i = 0; i < histogramas.length; i++) {
+            histogramas[i] = new Histograma();
+            errores[i] = new LongAdder();
+            rechazos[i] = new LongAdder();
+        }
+
+        long intervalo = (long) (1e9 / tasa);
+        long total = tiempo.toNanos();
+        long inicio = System.nanoTime();
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; ; n++) {
+                // Se compara el desplazamiento y no el instante absoluto: nanoTime puede estar cerca del desborde
+                long desplazamiento = n * intervalo;    // Acotado por TIEMPO_MAXIMO + intervalo, no desborda
+                if (desplazamiento >= total) {
+                    break;
+                }
+                long programado = inicio + desplazamiento;
+                // Espera hasta el instante programado; si va atrasado lanza de inmediato
+                long espera = programado - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                Operacion operacion = elegirOperacion();
+                hilos.execute(() -> medir(operacion, programado));
+            }
+        }    // close() espera a que terminen todas las operaciones lanzadas
+    }
+
+    /**
+     * Ejecuta una operación y registra su latencia desde el instante programado
+     */
+    private void medir(Operacion operacion, long programado) {
+        try {
+            ejecutarOperacion(operacion);
+        } catch (SobrecargaException e) {
+            rechazos[operacion.ordinal()].increment();
+            return;    // Rechazo inmediato: no es una latencia de servicio
+        } catch (RuntimeException e) {
+            errores[operacion.ordinal()].increment();
+        }
+        histogramas[operacion.ordinal()].registrar(System.nanoTime() - programado);
+    }
+
+    private void ejecutarOperacion(Operacion operacion) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        switch (operacion) {
+            case LOGIN: {
+                int i = aleatorio.nextInt(cantidadUsuarios);
+                if (!crearAutenticacion().autenticar(usuarios[i].getEmail(), credenciales[i])) {
+                    throw new IllegalStateException("Login fallido");
+                }
+                break;
+            }
+            case ACCESO:
+                sesiones.get(aleatorio.nextInt(sesiones.size()))
+                        .puedeAcceder(RECURSOS[aleatorio.nextInt(RECURSOS.length)]);
+                break;
+            case PASSWORD:
+                sesiones.get(aleatorio.nextInt(sesiones.size())).cambiarPassword("NuevaCarga123");
+                break;
+            case CREAR: {
+                long n = nuevosUsuarios.incrementAndGet();
+                Usuario nuevo = new Usuario("nuevo-" + n, "Nuevo " + n, "nuevo" + n + "@carga.test",
+                        "Nuevo" + n + "Pass", new UsuarioRegular());
+                sesionesAdmin.get(aleatorio.nextInt(sesionesAdmin.size())).crearUsuario(nuevo);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Operación desconocida: " + operacion);
+        }
+    }
+
+    /**
+     * Muestra throughput y percentiles de cada operación
+     */
+    private void informar(double segundos) {
+        logger.info("");
+        logger.info(String.format("%-16s %10s %10s %10s %10s %10s %10s %8s %9s",
+                "operación", "total", "ops/s", "p50(µs)", "p99(µs)", "p999(µs)", "max(µs)", "errores", "rechazos"));
+        long total = 0;
+        for (Operacion operacion : Operacion.values()) {
+            Histograma histograma = histogramas[operacion.ordinal()];
+            total += histograma.total();
+            logger.info(String.format("%-16s %10d %10.0f %10.1f %10.1f %10.1f %10.1f %8d %9d",
+                    operacion.nombre, histograma.total(), histograma.total() / segundos,
+                    histograma.percentil(0.50) / 1e3, histograma.percentil(0.99) / 1e3,
+                    histograma.percentil(0.999) / 1e3, histograma.maximo() / 1e3,
+                    errores[operacion.ordinal()].sum(), rechazos[operacion.ordinal()].sum()));
+        }
+        logger.info(String.format("Throughput total: %.0f ops/s (objetivo %.0f ops/s)", total / segundos, tasa));
+    }
+
+    // === CONFIGURACIÓN ===
+
+    private IRepositorioUsuario crearRepositorio(String tipo) {
+        if (tipo.equals("memoria")) {
+            return new RepositorioUsuarioMemoria();
+        }
+        if (tipo.equals("indexado")) {
+            return new RepositorioUsuarioIndexado(cantidadUsuarios);
+        }
+        throw new IllegalArgumentException("Repositorio desconocido: " + tipo);
+    }
+
+    private IControlAdmision crearAdmision(String tipo) {
+        if (tipo.equals("ninguna")) {
+            return IControlAdmision.SIN_LIMITE;
+        }
+        if (tipo.equals("adaptativa")) {
+            return new ControlAdmisionAdaptativo();
+        }
+        throw new IllegalArgumentException("Control de admisión desconocido: " + tipo);
+    }
+
+    private IAutenticacion crearAutenticacion() {
+        switch (tipoAutenticacion) {
+            case "basica":
+                return new AutenticacionBasica(repositorio);
+            case "oauth":
+                return new AutenticacionOAuth(repositorio);
+            case "token":
+                return new AutenticacionToken(motorTokens);
+            default:
+                throw new IllegalArgumentException("Autenticación desconocida: " + tipoAutenticacion);
+        }
+    }
+
+    private String credencialDe(Usuario usuario) {
+        switch (tipoAutenticacion) {
+            case "oauth":
+                return "oauth_carga";
+            case "token":
+                return motorTokens.emitir(usuario);
+            default:
+                return usuario.getPassword();
+        }
+    }
+
+    /**
+     * Lee la mezcla "operacion:peso,..." como pesos acumulados
+     */
+    private void leerMezcla(String mezcla) {
+        int[] pesos = new int[Operacion.values().length];
+        for (String parte : mezcla.split(",")) {
+            String[] operacionPeso = parte.split(":");
+            Operacion operacion = null;
+            for (Operacion candidata : Operacion.values()) {
+                if (candidata.nombre.equals(operacionPeso[0].trim())) {
+                    operacion = candidata;
+                }
+            }
+            if (operacion == null || operacionPeso.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida: " + parte);
+            }
+            int peso = Integer.parseInt(operacionPeso[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Los pesos de la mezcla no pueden ser negativos: " + parte);
+            }
+            pesos[operacion.ordinal()] = peso;
+        }
+
+        long acumulado = 0;    // long: la suma de pesos int puede desbordar
+        for (int i = 0; i < pesos.length; i++) {
+            acumulado += pesos[i];
+            if (acumulado > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("La suma de los pesos de la mezcla es demasiado grande: " + mezcla);
+            }
+            pesosAcumulados[i] = (int) acumulado;
+        }
+        if (acumulado <= 0) {
+            throw new IllegalArgumentException("La mezcla debe tener al menos un peso positivo");
+        }
+    }
+
+    private Operacion elegirOperacion() {
+        int valor = ThreadLocalRandom.current().nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        int i = 0;
+        while (valor >= pesosAcumulados[i]) {
+            i++;
+        }
+        return Operacion.values()[i];
+    }
+
+    /**
+     * Configura el logger para mostrar solo el mensaje en consola
+     */
+    private static void configurarLogger() {
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+        consoleHandler.setLevel(Level.ALL);
+        consoleHandler.setFormatter(new SimpleFormatter() {
+            @Override
+            public String format(java.util.logging.LogRecord record) {
+                return record.getMessage() + System.lineSeparator();
+            }
+        });
+        logger.addHandler(consoleHandler);
+        logger.setUseParentHandlers(false);
+    }
+
+    /**
+     * Histograma de latencias concurrente con cubetas logarítmicas
+     * Cada potencia de dos se divide en 16 sub-cubetas (error relativo menor al 7%)
+     */
+    private static final class Histograma {
+        private static final int SUB_CUBETAS = 16;
+        private final AtomicLongArray cubetas = new AtomicLongArray(64 * SUB_CUBETAS);
+        private final LongAdder cantidad = new LongAdder();
+        private final AtomicLong maximo = new AtomicLong();
+
+        private void registrar(long nanos) {
+            long valor = Math.max(nanos, 1);
+            cubetas.incrementAndGet(indice(valor));
+            cantidad.increment();
+            maximo.accumulateAndGet(valor, Math::max);
+        }
+
+        private static int indice(long valor) {
+            int exponente = 63 - Long.numberOfLeadingZeros(valor);
+            if (exponente < 4) {
+                return (int) valor;    // Valores pequeños: una cubeta por valor
+            }
+            int mantisa = (int) (valor >>> (exponente - 4)) & (SUB_CUBETAS - 1);
+            return exponente * SUB_CUBETAS + mantisa;
+        }
+
+        /**
+         * Límite superior del rango de valores de una cubeta
+         */
+        private static long limiteSuperior(int indice) {
+            if (indice < 4 * SUB_CUBETAS) {
+                return indice;
+            }
+            int exponente = indice / SUB_CUBETAS;
+            long mantisa = indice % SUB_CUBETAS;
+            return ((SUB_CUBETAS + mantisa + 1) << (exponente - 4)) - 1;
+        }
+
+        private long total() {
+            return cantidad.sum();
+        }
+
+        private long maximo() {
+            return maximo.get();
+        }
+
+        private long percentil(double fraccion) {
+            long objetivo = (long) Math.ceil(total() * fraccion);
+            long acumulado = 0;
+            for (int i = 0; i < cubetas.length(); i++) {
+                acumulado += cubetas.get(i);
+                if (acumulado >= objetivo && acumulado > 0) {
+                    return Math.min(limiteSuperior(i), maximo());
+                }
+            }
+            return maximo();
+        }
+    }
+}
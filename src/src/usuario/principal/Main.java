@@ -5,6 +5,8 @@ import usuario.implementaciones.*;
 import usuario.modelo.Usuario;
 import usuario.modelo.roles.*;
 import usuario.servicio.ServicioControlUsuarios;
+import java.time.Duration;
+import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.util.logging.ConsoleHandler;
@@ -128,6 +130,10 @@ public class Main {
             logger.info(String.format("Usuario puede acceder a admin_panel: %s", puedeAdminPanel));
             logger.info(String.format("Usuario puede acceder a public_content: %s", puedePublicContent));
 
+            // Verificación de todo un menú en una sola llamada
+            List<String> menu = List.of("public_content", "admin_panel", "user_management", "login");
+            logger.info(String.format("Menú visible para el usuario: %s", servicio.filtrarAccesibles(menu)));
+
             // El usuario puede cambiar su contraseña
             try {
                 servicio.cambiarPassword("NuevoPass123");
@@ -166,6 +172,10 @@ public class Main {
             logger.info(String.format("Invitado puede acceder a public_content: %s", puedePublicContent));
             logger.info(String.format("Invitado puede acceder a admin_panel: %s", puedeAdminPanel));
             logger.info(String.format("Invitado puede acceder a user_management: %s", puedeUserMgmt));
+
+            // Las rutas con "." o ".." se deniegan: no heredan el permiso del primer segmento
+            boolean puedeRutaRelativa = servicio.puedeAcceder("login/../admin_panel");
+            logger.info(String.format("Invitado puede acceder a login/../admin_panel: %s", puedeRutaRelativa));
         } else {
             logger.severe("✗ Falló la autenticación del invitado");
         }
@@ -192,6 +202,17 @@ public class Main {
             logger.severe(String.format("✗ Error en demostración OAuth: %s", e.getMessage()));
         }
 
+        // Autenticación con tokens firmados: no consulta el repositorio al verificar
+        MotorTokens motorTokens = new MotorTokens(Duration.ofMinutes(30));
+        String tokenFirmado = motorTokens.emitir(admin);
+        IAutenticacion authToken = new AutenticacionToken(motorTokens);
+        if (authToken.autenticar("admin@empresa.com", tokenFirmado)) {
+            logger.info(String.format("✓ Autenticación con token firmado exitosa para: %s",
+                    authToken.obtenerUsuarioActual().getNombre()));
+        } else {
+            logger.warning("✗ Falló la autenticación con token firmado");
+        }
+
         logger.info(""); // Línea en blanco
 
         // === RESUMEN DE PRINCIPIOS SOLID APLICADOS ===
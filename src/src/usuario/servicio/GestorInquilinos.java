@@ -0,0 +1,409 @@
+package usuario.servicio;
+
+import usuario.interfaces.*;
+import usuario.implementaciones.AutenticacionBasica;
+import usuario.implementaciones.RepositorioUsuarioIndexado;
+import usuario.modelo.Usuario;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Gestor de inquilinos (organizaciones) - PRINCIPIOS SRP y DIP
+ * SRP: Aísla los datos y la carga de cada inquilino
+ * DIP: Depende de IAlmacenInquilinos para guardar los inquilinos inactivos
+ *
+ * Cada inquilino tiene su propio repositorio con índices de email independientes,
+ * por lo que el mismo email puede existir en dos organizaciones y los bloqueos
+ * de una no afectan a otra. Los inquilinos se cargan al primer uso y, al superar
+ * el máximo en memoria, un único hilo en segundo plano descarga el usado hace
+ * más tiempo (LRU); así ninguna solicitud paga la escritura de otro inquilino.
+ * Al descargarse también se olvida su entrada, y la memoria depende de los
+ * inquilinos cargados y no de todos los que alguna vez se usaron.
+ *
+ * Cada inquilino tiene además una cuota de solicitudes por segundo, que se
+ * cobra una vez por operación pública (login o método del servicio), no por
+ * cada acceso al repositorio; al superarla se lanza CuotaExcedidaException
+ * antes de hacer nada. La cuota vive fuera de la entrada descargable, así
+ * descargar y volver a cargar un inquilino no la reinicia; solo se olvida la
+ * cuota de un inquilino que ya la recuperó por completo.
+ *
+ * Los servicios y autenticaciones creados usan el mismo IHashPassword que el
+ * almacén, así el formato de las contraseñas no cambia al descargar y cargar.
+ */
+public class GestorInquilinos {
+
+    private static final Logger logger = Logger.getLogger(GestorInquilinos.class.getName());
+
+    // Dependencias inyectadas (PRINCIPIO DIP)
+    private IAlmacenInquilinos almacen;    // Donde viven los inquilinos descargados
+    private IValidadorPassword validador;  // Para los servicios de cada inquilino
+    private IHashPassword hash;            // El mismo esquema que usa el almacén
+    private IControlAdmision admision;     // Compartido por los servicios de todos los inquilinos
+
+    private final int maxCargados;                // Inquilinos en memoria a la vez
+    private final double solicitudesPorSegundo;   // Cuota de cada inquilino
+    private final int rafaga;                     // Solicitudes permitidas de golpe
+    private final Map<String, Inquilino> inquilinos = new ConcurrentHashMap<>();    // Inquilinos en uso
+    private final Map<String, Inquilino> cargados = new ConcurrentHashMap<>();      // Con usuarios en memoria
+    private final Map<String, Cuota> cuotas = new ConcurrentHashMap<>();            // Sobrevive a la descarga
+
+    // Descargas y limpieza de cuotas, fuera del camino de las solicitudes
+    private final ScheduledExecutorService mantenimiento = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "inquilinos-mantenimiento");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private final AtomicBoolean descargaPendiente = new AtomicBoolean();
+
+    /**
+     * @param almacen - Almacén de los inquilinos descargados
+     * @param validador - Validador de contraseñas de los servicios creados
+     * @param hash - Esquema de hash de las contraseñas (el mismo que usa el almacén)
+     * @param admision - Control de admisión de los servicios creados
+     * @param maxCargados - Máximo de inquilinos con sus usuarios en memoria
+     * @param solicitudesPorSegundo - Cuota sostenida de cada inquilino
+     * @param rafaga - Solicitudes que un inquilino puede hacer de golpe por encima de la cuota
+     */
+    public GestorInquilinos(IAlmacenInquilinos almacen, IValidadorPassword validador, IHashPassword hash,
+                            IControlAdmision admision, int maxCargados, double solicitudesPorSegundo, int rafaga) {
+        this.almacen = almacen;
+        this.validador = validador;
+        this.hash = hash;
+        this.admision = admision;
+        this.maxCargados = maxCargados;
+        this.solicitudesPorSegundo = solicitudesPorSegundo;
+        this.rafaga = rafaga;
+
+        // Las cuotas ya recuperadas se olvidan: su estado es igual al de una cuota nueva
+        mantenimiento.scheduleWithFixedDelay(() -> cuotas.values().removeIf(Cuota::recuperada),
+                1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Repositorio aislado de un inquilino
+     * Cada operación carga al inquilino si estaba descargado (no consume cuota:
+     * la cuota se cobra en la autenticación y el servicio del inquilino)
+     */
+    public IRepositorioUsuario repositorio(String inquilino) {
+        return new RepositorioInquilino(inquilino);
+    }
+
+    /**
+     * Autenticación de un inquilino, con el mismo hash que el almacén
+     * Cada intento de login consume una solicitud de la cuota
+     */
+    public IAutenticacion crearAutenticacion(String inquilino) {
+        return new AutenticacionInquilino(inquilino, new AutenticacionBasica(repositorio(inquilino), hash));
+    }
+
+    /**
+     * Servicio de control de usuarios limitado a un inquilino
+     * Cada operación consume una solicitud de la cuota y pasa por el control de admisión
+     * @param inquilino - Identificador del inquilino
+     * @param autenticacion - Autenticación creada con crearAutenticacion(inquilino)
+     */
+    public ServicioControlUsuarios crearServicio(String inquilino, IAutenticacion autenticacion) {
+        return new ServicioControlUsuarios(autenticacion, repositorio(inquilino), validador,
+                IPoliticaAcceso.POR_ROL, new AdmisionInquilino(inquilino), hash);
+    }
+
+    /**
+     * Guarda y descarga todos los inquilinos (ej: al detener la aplicación)
+     * @throws IOException si algún inquilino no se pudo guardar (queda en memoria)
+     */
+    public void cerrar() throws IOException {
+        mantenimiento.shutdownNow();
+        int fallidos = 0;
+        for (Inquilino inquilino : inquilinos.values()) {
+            if (!inquilino.descargar(true)) {
+                fallidos++;
+            }
+        }
+        if (fallidos > 0) {
+            throw new IOException(String.format("No se pudieron guardar %d inquilinos", fallidos));
+        }
+    }
+
+    /**
+     * Cobra una solicitud de la cuota de un inquilino
+     * @throws CuotaExcedidaException si el inquilino superó su cuota
+     */
+    private void consumirCuota(String id) {
+        Cuota cuota = cuotas.computeIfAbsent(id, clave -> new Cuota(solicitudesPorSegundo, rafaga));
+        if (!cuota.intentarConsumir()) {
+            logger.warning(String.format("Cuota de solicitudes excedida para el inquilino %s", id));
+            throw new CuotaExcedidaException(id);
+        }
+    }
+
+    /**
+     * Ejecuta una operación sobre los usuarios de un inquilino
+     * El bloqueo de lectura impide que se descargue mientras la operación está en curso;
+     * si se descargó y retiró justo antes, se continúa con su reemplazo en el mapa
+     */
+    private <T> T ejecutar(String id, Function<RepositorioUsuarioIndexado, T> operacion) {
+        Inquilino inquilino = inquilinos.computeIfAbsent(id, Inquilino::new);
+        while (true) {
+            inquilino.ultimoAcceso = System.nanoTime();
+            inquilino.cerrojo.readLock().lock();
+            try {
+                RepositorioUsuarioIndexado actual = inquilino.repositorio;
+                if (actual != null) {
+                    return operacion.apply(actual);
+                }
+            } finally {
+                inquilino.cerrojo.readLock().unlock();
+            }
+            if (inquilino.retirado) {
+                inquilino = inquilinos.computeIfAbsent(id, Inquilino::new);
+            } else {
+                inquilino.cargar();
+            }
+        }
+    }
+
+    /**
+     * Pide al hilo de mantenimiento que descargue inquilinos si sobran
+     * Varias cargas seguidas se agrupan en una sola tarea
+     */
+    private void programarDescarga() {
+        if (cargados.size() > maxCargados && descargaPendiente.compareAndSet(false, true)) {
+            try {
+                mantenimiento.execute(() -> {
+                    descargaPendiente.set(false);
+                    liberarMemoria();
+                });
+            } catch (RejectedExecutionException e) {
+                descargaPendiente.set(false);    // Gestor cerrado: ya no se descarga nada
+            }
+        }
+    }
+
+    /**
+     * Mientras haya demasiados inquilinos cargados, descarga el menos usado recientemente
+     * Corre solo en el hilo de mantenimiento
+     */
+    private void liberarMemoria() {
+        while (cargados.size() > maxCargados) {
+            // Solo se revisan los cargados: el costo depende de maxCargados, no del total de inquilinos
+            Inquilino masAntiguo = null;
+            for (Inquilino candidato : cargados.values()) {
+                if (masAntiguo == null || candidato.ultimoAcceso < masAntiguo.ultimoAcceso) {
+                    masAntiguo = candidato;
+                }
+            }
+            if (masAntiguo == null || !masAntiguo.descargar(false)) {
+                return;    // Nada que descargar o el candidato está en uso; se reintenta en la próxima carga
+            }
+        }
+    }
+
+    /**
+     * Estado de un inquilino: sus usuarios (si están cargados) y último acceso
+     */
+    private final class Inquilino {
+        private final String id;
+        private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+        private volatile RepositorioUsuarioIndexado repositorio;    // null = descargado
+        private volatile boolean retirado;                          // Descargado y quitado del mapa
+        private volatile long ultimoAcceso;
+
+        private Inquilino(String id) {
+            this.id = id;
+        }
+
+        private void cargar() {
+            cerrojo.writeLock().lock();
+            try {
+                if (repositorio != null || retirado) {
+                    return;    // Otro hilo lo cargó (o lo retiró) mientras se esperaba el bloqueo
+                }
+                RepositorioUsuarioIndexado nuevo = new RepositorioUsuarioIndexado();
+                almacen.cargar(id, nuevo);
+                repositorio = nuevo;
+                cargados.put(id, this);
+                logger.info(String.format("Inquilino %s cargado en memoria", id));
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo cargar el inquilino " + id, e);
+            } finally {
+                cerrojo.writeLock().unlock();
+            }
+            programarDescarga();
+        }
+
+        /**
+         * Guarda y libera los usuarios del inquilino, y lo quita del mapa de inquilinos
+         * @param esperar - Si es false y el inquilino está en uso, no se descarga
+         * @return true si quedó descargado
+         */
+        private boolean descargar(boolean esperar) {
+            if (esperar) {
+                cerrojo.writeLock().lock();
+            } else if (!cerrojo.writeLock().tryLock()) {
+                return false;
+            }
+            try {
+                if (repositorio == null) {
+                    return true;
+                }
+                almacen.guardar(id, repositorio);
+                repositorio = null;
+                retirado = true;    // Quien lo tenga en mano lo volverá a buscar en el mapa
+                cargados.remove(id, this);
+                inquilinos.remove(id, this);
+                logger.info(String.format("Inquilino %s descargado de memoria", id));
+                return true;
+            } catch (IOException e) {
+                // Se conserva en memoria para no perder datos
+                logger.warning(String.format("No se pudo guardar el inquilino %s: %s", id, e.getMessage()));
+                return false;
+            } finally {
+                cerrojo.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Repositorio visible para los servicios de un inquilino
+     * Cada llamada se redirige al repositorio cargado en ese momento
+     */
+    private final class RepositorioInquilino implements IRepositorioUsuario, IListadoUsuarios {
+        private final String inquilino;
+
+        private RepositorioInquilino(String inquilino) {
+            this.inquilino = inquilino;
+        }
+
+        @Override
+        public Usuario buscarPorEmail(String email) {
+            return ejecutar(inquilino, repositorio -> repositorio.buscarPorEmail(email));
+        }
+
+        @Override
+        public void guardar(Usuario usuario) {
+            ejecutar(inquilino, repositorio -> {
+                repositorio.guardar(usuario);
+                return null;
+            });
+        }
+
+        @Override
+        public boolean existeEmail(String email) {
+            return ejecutar(inquilino, repositorio -> repositorio.existeEmail(email));
+        }
+
+        @Override
+        public boolean reemplazar(Usuario anterior, Usuario nuevo) {
+            return ejecutar(inquilino, repositorio -> repositorio.reemplazar(anterior, nuevo));
+        }
+
+        @Override
+        public Spliterator<Usuario> recorrer() {
+            // El recorrido sigue siendo válido aunque el inquilino se descargue después
+            return ejecutar(inquilino, RepositorioUsuarioIndexado::recorrer);
+        }
+    }
+
+    /**
+     * Autenticación de un inquilino: cobra la cuota una vez por intento de login,
+     * antes de verificar la contraseña
+     */
+    private final class AutenticacionInquilino implements IAutenticacion {
+        private final String inquilino;
+        private final IAutenticacion autenticacion;
+
+        private AutenticacionInquilino(String inquilino, IAutenticacion autenticacion) {
+            this.inquilino = inquilino;
+            this.autenticacion = autenticacion;
+        }
+
+        @Override
+        public boolean autenticar(String email, String password) {
+            consumirCuota(inquilino);
+            return autenticacion.autenticar(email, password);
+        }
+
+        @Override
+        public Usuario obtenerUsuarioActual() {
+            return autenticacion.obtenerUsuarioActual();    // Parte de una operación ya cobrada
+        }
+    }
+
+    /**
+     * Admisión de los servicios de un inquilino: cobra la cuota una vez por
+     * operación del servicio y luego pasa por el control compartido
+     */
+    private final class AdmisionInquilino implements IControlAdmision {
+        private final String inquilino;
+
+        private AdmisionInquilino(String inquilino) {
+            this.inquilino = inquilino;
+        }
+
+        @Override
+        public long entrar(Clase clase) {
+            consumirCuota(inquilino);
+            return admision.entrar(clase);
+        }
+
+        @Override
+        public long intentarEntrar(Clase clase) {
+            consumirCuota(inquilino);
+            return admision.intentarEntrar(clase);
+        }
+
+        @Override
+        public void salir(Clase clase, long entrada) {
+            admision.salir(clase, entrada);
+        }
+    }
+
+    /**
+     * Cuota de solicitudes sin bloqueos (algoritmo GCRA, equivalente a un token bucket)
+     * Guarda el instante teórico de la próxima solicitud; se rechaza si
+     * adelantarlo superaría la ráfaga permitida
+     */
+    private static final class Cuota {
+        private final long intervalo;          // Nanosegundos entre solicitudes sostenidas
+        private final long tolerancia;         // Adelanto máximo permitido (ráfaga)
+        private final AtomicLong proxima = new AtomicLong(System.nanoTime());
+
+        private Cuota(double solicitudesPorSegundo, int rafaga) {
+            this.intervalo = (long) (1e9 / solicitudesPorSegundo);
+            this.tolerancia = intervalo * Math.max(1, rafaga);
+        }
+
+        private boolean intentarConsumir() {
+            long ahora = System.nanoTime();
+            while (true) {
+                long actual = proxima.get();
+                long nueva = Math.max(actual, ahora) + intervalo;
+                if (nueva - ahora > tolerancia) {
+                    return false;
+                }
+                if (proxima.compareAndSet(actual, nueva)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Indica si la ráfaga está completa, es decir, si equivale a una cuota nueva
+         */
+        private boolean recuperada() {
+            return proxima.get() - System.nanoTime() <= 0;
+        }
+    }
+}
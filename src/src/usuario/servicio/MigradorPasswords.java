@@ -0,0 +1,164 @@
+package usuario.servicio;
+
+import usuario.interfaces.IHashPassword;
+import usuario.interfaces.IListadoUsuarios;
+import usuario.interfaces.IRepositorioUsuario;
+import usuario.modelo.Usuario;
+import java.time.Duration;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Migrador de contraseñas en segundo plano - PRINCIPIOS SRP y DIP
+ * SRP: Solo lleva las contraseñas almacenadas al esquema y costo actuales
+ * DIP: Depende de IListadoUsuarios, IRepositorioUsuario e IHashPassword
+ *
+ * Recorre los usuarios por lotes en un hilo de baja prioridad y, después de
+ * cada lote, descansa lo necesario para no superar el presupuesto de CPU
+ * (ej: 0.1 = 10% de un núcleo), así la latencia del login no se ve afectada.
+ * Las contraseñas en texto plano se convierten en hash y los hashes con costo
+ * desactualizado se refuerzan encadenando la etapa que falta (no hace falta la
+ * contraseña), así también las cuentas inactivas llegan al costo actual.
+ * Un registro que falla (ej: sin contraseña) se registra y se salta; un error
+ * al recorrer (ej: un inquilino que no se pudo cargar) se reintenta en la próxima pasada.
+ */
+public class MigradorPasswords {
+
+    private static final Logger logger = Logger.getLogger(MigradorPasswords.class.getName());
+
+    // Dependencias inyectadas (PRINCIPIO DIP)
+    private IListadoUsuarios listado;          // Para recorrer todas las cuentas
+    private IRepositorioUsuario repositorio;   // Para guardar las cuentas migradas
+    private IHashPassword hash;                // Esquema de hash de destino
+
+    private final int tamanoLote;              // Usuarios revisados por lote
+    private final double presupuestoCpu;       // Fracción de un núcleo que puede usar (0-1]
+    private final Duration pausaEntrePasadas;  // Espera al terminar de recorrer todos los usuarios
+    private final AtomicLong migrados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private volatile boolean detenido = true;
+    private Thread hilo;
+
+    public MigradorPasswords(IListadoUsuarios listado, IRepositorioUsuario repositorio, IHashPassword hash,
+                             int tamanoLote, double presupuestoCpu, Duration pausaEntrePasadas) {
+        if (presupuestoCpu <= 0 || presupuestoCpu > 1) {
+            throw new IllegalArgumentException("El presupuesto de CPU debe estar entre 0 y 1");
+        }
+        this.listado = listado;
+        this.repositorio = repositorio;
+        this.hash = hash;
+        this.tamanoLote = tamanoLote;
+        this.presupuestoCpu = presupuestoCpu;
+        this.pausaEntrePasadas = pausaEntrePasadas;
+    }
+
+    /**
+     * Inicia la migración en segundo plano
+     */
+    public synchronized void iniciar() {
+        if (hilo != null && hilo.isAlive()) {
+            return;    // Ya está en marcha
+        }
+        detenido = false;
+        hilo = new Thread(this::ejecutar, "migrador-passwords");
+        hilo.setDaemon(true);
+        hilo.setPriority(Thread.MIN_PRIORITY);    // Cede la CPU a las solicitudes
+        hilo.start();
+        logger.info("Migración de contraseñas iniciada");
+    }
+
+    /**
+     * Detiene la migración; el lote en curso se completa
+     */
+    public synchronized void detener() throws InterruptedException {
+        detenido = true;
+        if (hilo != null) {
+            hilo.interrupt();
+            hilo.join();
+            hilo = null;
+        }
+        logger.info(String.format("Migración de contraseñas detenida, %d cuentas migradas", migrados.get()));
+    }
+
+    /**
+     * Cantidad de cuentas migradas desde que se creó el migrador
+     */
+    public long getMigrados() {
+        return migrados.get();
+    }
+
+    /**
+     * Cantidad de cuentas que no se pudieron migrar (se reintentan en la próxima pasada)
+     */
+    public long getFallidos() {
+        return fallidos.get();
+    }
+
+    /**
+     * Migra un lote de usuarios del recorrido
+     * @return Usuarios revisados (menos que el tamaño del lote si el recorrido terminó)
+     */
+    public int migrarLote(Spliterator<Usuario> recorrido) {
+        int revisados = 0;
+        while (revisados < tamanoLote && recorrido.tryAdvance(this::migrar)) {
+            revisados++;
+        }
+        return revisados;
+    }
+
+    private void ejecutar() {
+        Spliterator<Usuario> recorrido = null;
+        try {
+            while (!detenido) {
+                int revisados;
+                long inicio = System.nanoTime();
+                try {
+                    if (recorrido == null) {
+                        recorrido = listado.recorrer();
+                    }
+                    revisados = migrarLote(recorrido);
+                } catch (RuntimeException e) {
+                    // El recorrido falló: se abandona esta pasada y se empieza otra después de la pausa
+                    logger.warning(String.format("Error al recorrer los usuarios a migrar: %s", e.getMessage()));
+                    revisados = 0;
+                }
+                long trabajo = System.nanoTime() - inicio;
+
+                // Descanso proporcional al trabajo: trabajo / (trabajo + descanso) = presupuesto
+                TimeUnit.NANOSECONDS.sleep((long) (trabajo * (1 - presupuestoCpu) / presupuestoCpu));
+
+                if (revisados < tamanoLote) {
+                    // Pasada completa: se vuelve a empezar para incluir cuentas nuevas
+                    TimeUnit.NANOSECONDS.sleep(pausaEntrePasadas.toNanos());
+                    recorrido = null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Lleva la contraseña almacenada de un usuario al costo actual
+     */
+    private void migrar(Usuario usuario) {
+        try {
+            if (usuario.getPassword() == null || !hash.requiereActualizacion(usuario.getPassword())) {
+                return;    // Sin contraseña o ya al día
+            }
+            Usuario migrado = new Usuario(usuario.getId(), usuario.getNombre(), usuario.getEmail(),
+                    hash.actualizar(usuario.getPassword()), usuario.getRol());
+
+            // Si la cuenta cambió mientras se calculaba el hash (login, cambio de datos), no se pisa
+            if (repositorio.reemplazar(usuario, migrado)) {
+                migrados.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            // Un registro con problemas no detiene la migración del resto
+            fallidos.incrementAndGet();
+            logger.warning(String.format("No se pudo migrar la contraseña de %s: %s", usuario.getEmail(), e.getMessage()));
+        }
+    }
+}
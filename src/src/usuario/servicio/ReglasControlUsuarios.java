@@ -0,0 +1,263 @@
+package usuario.servicio;
+
+import usuario.interfaces.IHashPassword;
+import usuario.interfaces.IPoliticaAcceso;
+import usuario.interfaces.IValidadorPassword;
+import usuario.modelo.Rol;
+import usuario.modelo.Usuario;
+import usuario.modelo.roles.Administrador;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reglas de negocio del control de usuarios - PRINCIPIOS SRP y DRY
+ * SRP: Solo decide quién puede hacer qué y qué datos son válidos
+ *
+ * Compartidas por ServicioControlUsuarios y ServicioControlUsuariosAsync:
+ * cada servicio resuelve el usuario actual y accede al repositorio a su modo
+ * (bloqueante o con futuros), pero autorización, validación, hash de la
+ * contraseña y registros son los mismos. Los errores se lanzan como
+ * SecurityException (permisos) o IllegalArgumentException (datos inválidos).
+ */
+final class ReglasControlUsuarios {
+
+    // Logger para registrar eventos del sistema
+    private static final Logger logger = Logger.getLogger(ReglasControlUsuarios.class.getName());
+
+    private final IValidadorPassword validador;    // Para validar contraseñas
+    private final IPoliticaAcceso politica;        // Para decidir el acceso a recursos
+    private final IHashPassword hash;              // null = contraseñas guardadas en texto plano
+
+    ReglasControlUsuarios(IValidadorPassword validador, IPoliticaAcceso politica, IHashPassword hash) {
+        this.validador = validador;
+        this.politica = politica;
+        this.hash = hash;
+    }
+
+    // === OPERACIONES ADMINISTRATIVAS ===
+
+    /**
+     * Verifica que el usuario actual pueda crear usuarios
+     * @throws SecurityException si no es administrador
+     */
+    void autorizarCreacion(Usuario actual, Usuario usuario) {
+        // Log del intento de creación de usuario
+        logger.info(String.format("Intento de creación de usuario: %s por usuario: %s",
+                usuario.getEmail(), nombreDe(actual)));
+
+        // Verifica que hay un usuario logueado Y que es administrador
+        if (!esAdministrador(actual)) {
+            // Log de seguridad - intento no autorizado
+            logger.warning(String.format("Intento no autorizado de crear usuario %s por %s",
+                    usuario.getEmail(), nombreDe(actual, "usuario no autenticado")));
+            throw new SecurityException("Solo administradores pueden crear usuarios");
+        }
+    }
+
+    /**
+     * Valida los datos de un usuario nuevo
+     * @param emailExiste - Si el repositorio ya tiene un usuario con ese email
+     * @throws IllegalArgumentException si el email está repetido o la contraseña no cumple los requisitos
+     */
+    void validarNuevoUsuario(Usuario usuario, boolean emailExiste) {
+        // Verifica que el email no esté ya registrado
+        if (emailExiste) {
+            logger.warning(String.format("Intento de crear usuario con email duplicado: %s", usuario.getEmail()));
+            throw new IllegalArgumentException("Email ya existe");
+        }
+
+        // Valida que la contraseña cumpla los requisitos
+        if (!validador.validar(usuario.getPassword())) {
+            logger.warning(String.format("Intento de crear usuario %s con contraseña inválida", usuario.getEmail()));
+            throw new IllegalArgumentException("Password no cumple los requisitos");
+        }
+    }
+
+    /**
+     * Usuario tal como debe guardarse
+     * La política se valida sobre la contraseña en claro; lo que se guarda es su hash
+     */
+    Usuario paraGuardar(Usuario usuario) {
+        if (hash == null) {
+            return usuario;
+        }
+        return new Usuario(usuario.getId(), usuario.getNombre(), usuario.getEmail(),
+                hash.generar(usuario.getPassword()), usuario.getRol());
+    }
+
+    void registrarCreacion(Usuario actual, Usuario usuario) {
+        logger.info(String.format("Usuario %s creado exitosamente por administrador %s",
+                usuario.getEmail(), actual.getNombre()));
+    }
+
+    /**
+     * @throws SecurityException si el usuario actual no es administrador
+     */
+    void autorizarEliminacion(Usuario actual, String id) {
+        // Log del intento de eliminación
+        logger.info(String.format("Intento de eliminación de usuario ID: %s por usuario: %s",
+                id, nombreDe(actual)));
+
+        // Verifica permisos de administrador
+        if (!esAdministrador(actual)) {
+            logger.warning(String.format("Intento no autorizado de eliminar usuario %s por %s",
+                    id, nombreDe(actual, "usuario no autenticado")));
+            throw new SecurityException("Solo administradores pueden eliminar usuarios");
+        }
+    }
+
+    void registrarEliminacion(Usuario actual, String id) {
+        logger.info(String.format("Usuario con ID %s eliminado exitosamente por administrador %s",
+                id, actual.getNombre()));
+    }
+
+    /**
+     * @throws SecurityException si el usuario actual no es administrador
+     */
+    void autorizarCambioRol(Usuario actual, String id, Rol nuevoRol) {
+        // Log del intento de cambio de rol
+        logger.info(String.format("Intento de cambio de rol para usuario ID: %s a rol: %s por usuario: %s",
+                id, nuevoRol.getNombre(), nombreDe(actual)));
+
+        // Verifica permisos de administrador
+        if (!esAdministrador(actual)) {
+            logger.warning(String.format("Intento no autorizado de cambiar rol del usuario %s por %s",
+                    id, nombreDe(actual, "usuario no autenticado")));
+            throw new SecurityException("Solo administradores pueden cambiar roles");
+        }
+    }
+
+    void registrarCambioRol(Usuario actual, String id, Rol nuevoRol) {
+        logger.info(String.format("Rol cambiado exitosamente para usuario ID %s a %s por administrador %s",
+                id, nuevoRol.getNombre(), actual.getNombre()));
+    }
+
+    // === OPERACIONES DE USUARIO ===
+
+    /**
+     * Verifica y valida un cambio de contraseña
+     * @throws SecurityException si no hay usuario autenticado
+     * @throws IllegalArgumentException si la contraseña no cumple los requisitos
+     */
+    void autorizarCambioPassword(Usuario actual, String nuevaPassword) {
+        // Log del intento de cambio de contraseña (sin incluir la contraseña por seguridad)
+        logger.info(String.format("Intento de cambio de contraseña por usuario: %s", nombreDe(actual)));
+
+        // Verifica que hay un usuario autenticado
+        if (actual == null) {
+            logger.warning("Intento de cambio de contraseña sin usuario autenticado");
+            throw new SecurityException("Usuario no autenticado");
+        }
+
+        // Valida la nueva contraseña
+        if (!validador.validar(nuevaPassword)) {
+            logger.warning(String.format("Usuario %s intentó cambiar a una contraseña inválida",
+                    actual.getNombre()));
+            throw new IllegalArgumentException("Password no cumple los requisitos");
+        }
+    }
+
+    void registrarCambioPassword(Usuario actual) {
+        logger.info(String.format("Contraseña actualizada exitosamente para usuario: %s",
+                actual.getNombre()));
+    }
+
+    /**
+     * @throws SecurityException si no hay usuario autenticado
+     */
+    void autorizarActualizacionPerfil(Usuario actual) {
+        // Log del intento de actualización de perfil
+        logger.info(String.format("Intento de actualización de perfil por usuario: %s", nombreDe(actual)));
+
+        if (actual == null) {
+            logger.warning("Intento de actualización de perfil sin usuario autenticado");
+            throw new SecurityException("Usuario no autenticado");
+        }
+    }
+
+    void registrarActualizacionPerfil(Usuario actual, String nombre, String email) {
+        logger.info(String.format("Perfil actualizado exitosamente para usuario: %s (nuevo nombre: %s, nuevo email: %s)",
+                actual.getNombre(), nombre, email));
+    }
+
+    // === OPERACIONES DE LECTURA ===
+
+    void registrarConsultaPerfil(Usuario actual) {
+        // Log de consulta de perfil (nivel DEBUG para no saturar logs)
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine(String.format("Consulta de perfil por usuario: %s", nombreDe(actual)));
+        }
+    }
+
+    /**
+     * Verifica que existe un usuario Y que su rol permite el acceso
+     */
+    boolean puedeAcceder(Usuario actual, String recurso) {
+        boolean puedeAcceder = actual != null && politica.puedeAcceder(actual.getRol(), recurso);
+
+        // Log de verificación de permisos (nivel DEBUG)
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine(String.format("Verificación de acceso al recurso '%s' por usuario %s: %s",
+                    recurso, nombreDe(actual), puedeAcceder ? "PERMITIDO" : "DENEGADO"));
+        }
+        return puedeAcceder;
+    }
+
+    /**
+     * Verifica varios recursos resolviendo el rol una sola vez
+     * @return Bit i encendido si se puede acceder al i-ésimo recurso
+     */
+    BitSet puedeAccederTodos(Usuario actual, Collection<String> recursos) {
+        BitSet permitidos = new BitSet(recursos.size());
+
+        if (actual != null) {
+            Rol rol = actual.getRol();
+            int i = 0;
+            for (String recurso : recursos) {
+                if (politica.puedeAcceder(rol, recurso)) {
+                    permitidos.set(i);    // Enciende el bit del recurso permitido
+                }
+                i++;
+            }
+        }
+
+        // Un solo registro para toda la verificación (nivel DEBUG)
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine(String.format("Verificación de acceso a %d recursos por usuario %s: %d PERMITIDOS",
+                    recursos.size(), nombreDe(actual), permitidos.cardinality()));
+        }
+        return permitidos;
+    }
+
+    /**
+     * Recursos cuyo bit está encendido, en el mismo orden de iteración
+     */
+    static List<String> filtrar(Collection<String> recursos, BitSet permitidos) {
+        List<String> accesibles = new ArrayList<>(permitidos.cardinality());
+        int i = 0;
+        for (String recurso : recursos) {
+            if (permitidos.get(i++)) {
+                accesibles.add(recurso);
+            }
+        }
+        return accesibles;
+    }
+
+    // === AUXILIARES ===
+
+    private static boolean esAdministrador(Usuario actual) {
+        return actual != null && actual.getRol() instanceof Administrador;
+    }
+
+    private static String nombreDe(Usuario actual) {
+        return nombreDe(actual, "No autenticado");
+    }
+
+    private static String nombreDe(Usuario actual, String sinUsuario) {
+        return actual != null ? actual.getNombre() : sinUsuario;
+    }
+}
@@ -1,17 +1,19 @@
 package usuario.servicio;
 
 import usuario.interfaces.*;
+import usuario.interfaces.IControlAdmision.Clase;
 import usuario.modelo.Usuario;
 import usuario.modelo.Rol;
-import usuario.modelo.roles.Administrador;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
 import java.util.logging.Logger;
-import java.util.logging.Level;
 
 /**
  * Servicio principal - PRINCIPIOS DIP, ISP, SRP
  * DIP: Depende de interfaces, no de implementaciones
  * ISP: Implementa múltiples interfaces específicas
- * SRP: Coordina operaciones de usuarios
+ * SRP: Coordina operaciones de usuarios; las reglas viven en ReglasControlUsuarios
  */
 public class ServicioControlUsuarios implements IOperacionesAdmin, IOperacionesUsuario, IOperacionesLectura {
 
@@ -21,17 +23,56 @@ public class ServicioControlUsuarios implements IOperacionesAdmin, IOperacionesU
     // Dependencias inyectadas (PRINCIPIO DIP)
     private IAutenticacion autenticacion;        // Para manejar autenticación
     private IRepositorioUsuario repositorio;     // Para persistir datos
-    private IValidadorPassword validador;        // Para validar contraseñas
+    private IControlAdmision admision;           // Para rechazar operaciones bajo sobrecarga
+    private ReglasControlUsuarios reglas;        // Autorización y validación (compartidas con la versión async)
 
     /**
      * Constructor con inyección de dependencias
+     * Usa la lógica de permisos propia de cada Rol
      */
     public ServicioControlUsuarios(IAutenticacion autenticacion,
                                    IRepositorioUsuario repositorio,
                                    IValidadorPassword validador) {
+        this(autenticacion, repositorio, validador, IPoliticaAcceso.POR_ROL);
+    }
+
+    /**
+     * Constructor con inyección de dependencias y política de acceso externa
+     */
+    public ServicioControlUsuarios(IAutenticacion autenticacion,
+                                   IRepositorioUsuario repositorio,
+                                   IValidadorPassword validador,
+                                   IPoliticaAcceso politica) {
+        this(autenticacion, repositorio, validador, politica, IControlAdmision.SIN_LIMITE);
+    }
+
+    /**
+     * Constructor con control de admisión
+     * Bajo sobrecarga las operaciones pueden fallar con SobrecargaException antes de ejecutarse
+     * (un mismo control puede compartirse entre los servicios de todas las sesiones)
+     */
+    public ServicioControlUsuarios(IAutenticacion autenticacion,
+                                   IRepositorioUsuario repositorio,
+                                   IValidadorPassword validador,
+                                   IPoliticaAcceso politica,
+                                   IControlAdmision admision) {
+        this(autenticacion, repositorio, validador, politica, admision, null);
+    }
+
+    /**
+     * Constructor con contraseñas hasheadas
+     * Los usuarios nuevos se guardan con el hash de su contraseña, nunca en texto plano
+     */
+    public ServicioControlUsuarios(IAutenticacion autenticacion,
+                                   IRepositorioUsuario repositorio,
+                                   IValidadorPassword validador,
+                                   IPoliticaAcceso politica,
+                                   IControlAdmision admision,
+                                   IHashPassword hash) {
         this.autenticacion = autenticacion;    // Asigna servicio de autenticación
         this.repositorio = repositorio;        // Asigna repositorio de datos
-        this.validador = validador;           // Asigna validador de contraseñas
+        this.admision = admision;             // Asigna control de admisión
+        this.reglas = new ReglasControlUsuarios(validador, politica, hash);
 
         // Log de inicialización del servicio
         logger.info("ServicioControlUsuarios inicializado correctamente");
@@ -41,170 +82,122 @@ public class ServicioControlUsuarios implements IOperacionesAdmin, IOperacionesU
 
     @Override
     public void crearUsuario(Usuario usuario) {
-        // Obtiene el usuario actualmente autenticado
-        Usuario actual = autenticacion.obtenerUsuarioActual();
-
-        // Log del intento de creación de usuario
-        logger.info(String.format("Intento de creación de usuario: %s por usuario: %s",
-                usuario.getEmail(),
-                actual != null ? actual.getNombre() : "No autenticado"));
-
-        // Verifica que hay un usuario logueado Y que es administrador
-        if (actual == null || !(actual.getRol() instanceof Administrador)) {
-            // Log de seguridad - intento no autorizado
-            logger.warning(String.format("Intento no autorizado de crear usuario %s por %s",
-                    usuario.getEmail(),
-                    actual != null ? actual.getNombre() : "usuario no autenticado"));
-            // Lanza excepción de seguridad si no tiene permisos
-            throw new SecurityException("Solo administradores pueden crear usuarios");
-        }
-
-        // Verifica que el email no esté ya registrado
-        if (repositorio.existeEmail(usuario.getEmail())) {
-            logger.warning(String.format("Intento de crear usuario con email duplicado: %s", usuario.getEmail()));
-            throw new IllegalArgumentException("Email ya existe");
-        }
-
-        // Valida que la contraseña cumpla los requisitos
-        if (!validador.validar(usuario.getPassword())) {
-            logger.warning(String.format("Intento de crear usuario %s con contraseña inválida", usuario.getEmail()));
-            throw new IllegalArgumentException("Password no cumple los requisitos");
+        long entrada = admision.entrar(Clase.ADMIN);    // Puede lanzar SobrecargaException
+        try {
+            // Obtiene el usuario actualmente autenticado y verifica que sea administrador
+            Usuario actual = autenticacion.obtenerUsuarioActual();
+            reglas.autorizarCreacion(actual, usuario);
+
+            // Verifica que el email no esté ya registrado y que la contraseña sea válida
+            reglas.validarNuevoUsuario(usuario, repositorio.existeEmail(usuario.getEmail()));
+
+            // Si todo está correcto, guarda el usuario (con la contraseña hasheada si corresponde)
+            repositorio.guardar(reglas.paraGuardar(usuario));
+            reglas.registrarCreacion(actual, usuario);
+        } finally {
+            admision.salir(Clase.ADMIN, entrada);
         }
-
-        // Si all está correcto, guarda el usuario
-        repositorio.guardar(usuario);
-
-        // Log exitoso de creación
-        logger.info(String.format("Usuario %s creado exitosamente por administrador %s",
-                usuario.getEmail(), actual.getNombre()));
     }
 
     @Override
     public void eliminarUsuario(String id) {
-        // Obtiene el usuario actual para logging
-        Usuario actual = autenticacion.obtenerUsuarioActual();
-
-        // Log del intento de eliminación
-        logger.info(String.format("Intento de eliminación de usuario ID: %s por usuario: %s",
-                id,
-                actual != null ? actual.getNombre() : "No autenticado"));
-
-        // Verifica permisos de administrador
-        if (actual == null || !(actual.getRol() instanceof Administrador)) {
-            logger.warning(String.format("Intento no autorizado de eliminar usuario %s por %s",
-                    id,
-                    actual != null ? actual.getNombre() : "usuario no autenticado"));
-            throw new SecurityException("Solo administradores pueden eliminar usuarios");
+        long entrada = admision.entrar(Clase.ADMIN);    // Puede lanzar SobrecargaException
+        try {
+            Usuario actual = autenticacion.obtenerUsuarioActual();
+            reglas.autorizarEliminacion(actual, id);
+
+            // Aquí iría la lógica de eliminación real
+            // Por ahora solo registramos la operación
+            reglas.registrarEliminacion(actual, id);
+        } finally {
+            admision.salir(Clase.ADMIN, entrada);
         }
-
-        // Aquí iría la lógica de eliminación real
-        // Por ahora solo registramos la operación
-        logger.info(String.format("Usuario con ID %s eliminado exitosamente por administrador %s",
-                id, actual.getNombre()));
     }
 
     @Override
     public void cambiarRolUsuario(String id, Rol nuevoRol) {
-        // Obtiene el usuario actual para logging
-        Usuario actual = autenticacion.obtenerUsuarioActual();
-
-        // Log del intento de cambio de rol
-        logger.info(String.format("Intento de cambio de rol para usuario ID: %s a rol: %s por usuario: %s",
-                id,
-                nuevoRol.getNombre(),
-                actual != null ? actual.getNombre() : "No autenticado"));
-
-        // Verifica permisos de administrador
-        if (actual == null || !(actual.getRol() instanceof Administrador)) {
-            logger.warning(String.format("Intento no autorizado de cambiar rol del usuario %s por %s",
-                    id,
-                    actual != null ? actual.getNombre() : "usuario no autenticado"));
-            throw new SecurityException("Solo administradores pueden cambiar roles");
+        long entrada = admision.entrar(Clase.ADMIN);    // Puede lanzar SobrecargaException
+        try {
+            Usuario actual = autenticacion.obtenerUsuarioActual();
+            reglas.autorizarCambioRol(actual, id, nuevoRol);
+
+            // Aquí iría la lógica de cambio de rol real
+            reglas.registrarCambioRol(actual, id, nuevoRol);
+        } finally {
+            admision.salir(Clase.ADMIN, entrada);
         }
-
-        // Aquí iría la lógica de cambio de rol real
-        logger.info(String.format("Rol cambiado exitosamente para usuario ID %s a %s por administrador %s",
-                id, nuevoRol.getNombre(), actual.getNombre()));
     }
 
     // === IMPLEMENTACIÓN DE IOperacionesUsuario ===
 
     @Override
     public void cambiarPassword(String nuevaPassword) {
-        // Obtiene el usuario actual
-        Usuario actual = autenticacion.obtenerUsuarioActual();
-
-        // Log del intento de cambio de contraseña (sin incluir la contraseña por seguridad)
-        logger.info(String.format("Intento de cambio de contraseña por usuario: %s",
-                actual != null ? actual.getNombre() : "No autenticado"));
-
-        // Verifica que hay un usuario autenticado
-        if (actual == null) {
-            logger.warning("Intento de cambio de contraseña sin usuario autenticado");
-            throw new SecurityException("Usuario no autenticado");
-        }
-
-        // Valida la nueva contraseña
-        if (!validador.validar(nuevaPassword)) {
-            logger.warning(String.format("Usuario %s intentó cambiar a una contraseña inválida",
-                    actual.getNombre()));
-            throw new IllegalArgumentException("Password no cumple los requisitos");
+        long entrada = admision.entrar(Clase.USUARIO);    // Puede lanzar SobrecargaException
+        try {
+            Usuario actual = autenticacion.obtenerUsuarioActual();
+            reglas.autorizarCambioPassword(actual, nuevaPassword);
+
+            // Simula actualización de contraseña
+            reglas.registrarCambioPassword(actual);
+        } finally {
+            admision.salir(Clase.USUARIO, entrada);
         }
-
-        // Simula actualización de contraseña
-        logger.info(String.format("Contraseña actualizada exitosamente para usuario: %s",
-                actual.getNombre()));
     }
 
     @Override
     public void actualizarPerfil(String nombre, String email) {
-        Usuario actual = autenticacion.obtenerUsuarioActual();
-
-        // Log del intento de actualización de perfil
-        logger.info(String.format("Intento de actualización de perfil por usuario: %s",
-                actual != null ? actual.getNombre() : "No autenticado"));
-
-        if (actual == null) {
-            logger.warning("Intento de actualización de perfil sin usuario autenticado");
-            throw new SecurityException("Usuario no autenticado");
+        long entrada = admision.entrar(Clase.USUARIO);    // Puede lanzar SobrecargaException
+        try {
+            Usuario actual = autenticacion.obtenerUsuarioActual();
+            reglas.autorizarActualizacionPerfil(actual);
+
+            // Aquí iría la lógica de actualización real
+            reglas.registrarActualizacionPerfil(actual, nombre, email);
+        } finally {
+            admision.salir(Clase.USUARIO, entrada);
         }
-
-        // Aquí iría la lógica de actualización real
-        logger.info(String.format("Perfil actualizado exitosamente para usuario: %s (nuevo nombre: %s, nuevo email: %s)",
-                actual.getNombre(), nombre, email));
     }
 
     // === IMPLEMENTACIÓN DE IOperacionesLectura ===
 
     @Override
     public Usuario verPerfil() {
-        Usuario actual = autenticacion.obtenerUsuarioActual();
-
-        // Log de consulta de perfil (nivel DEBUG para no saturar logs)
-        if (logger.isLoggable(Level.FINE)) {
-            logger.fine(String.format("Consulta de perfil por usuario: %s",
-                    actual != null ? actual.getNombre() : "No autenticado"));
+        long entrada = admision.entrar(Clase.LECTURA);    // Puede lanzar SobrecargaException
+        try {
+            Usuario actual = autenticacion.obtenerUsuarioActual();
+            reglas.registrarConsultaPerfil(actual);
+
+            // Retorna el usuario actual directamente
+            return actual;
+        } finally {
+            admision.salir(Clase.LECTURA, entrada);
         }
-
-        // Retorna el usuario actual directamente
-        return actual;
     }
 
     @Override
     public boolean puedeAcceder(String recurso) {
-        // Obtiene el usuario actual
-        Usuario actual = autenticacion.obtenerUsuarioActual();
-        boolean puedeAcceder = actual != null && actual.getRol().puedeAcceder(recurso);
-
-        // Log de verificación de permisos (nivel DEBUG)
-        if (logger.isLoggable(Level.FINE)) {
-            logger.fine(String.format("Verificación de acceso al recurso '%s' por usuario %s: %s",
-                    recurso,
-                    actual != null ? actual.getNombre() : "No autenticado",
-                    puedeAcceder ? "PERMITIDO" : "DENEGADO"));
+        long entrada = admision.entrar(Clase.LECTURA);    // Puede lanzar SobrecargaException
+        try {
+            return reglas.puedeAcceder(autenticacion.obtenerUsuarioActual(), recurso);
+        } finally {
+            admision.salir(Clase.LECTURA, entrada);
+        }
+    }
+
+    @Override
+    public BitSet puedeAccederTodos(Collection<String> recursos) {
+        long entrada = admision.entrar(Clase.LECTURA);    // Puede lanzar SobrecargaException
+        try {
+            // Resuelve el usuario una sola vez para todos los recursos
+            return reglas.puedeAccederTodos(autenticacion.obtenerUsuarioActual(), recursos);
+        } finally {
+            admision.salir(Clase.LECTURA, entrada);
         }
+    }
 
-        // Verifica que existe Y que su rol permite el acceso
-        return puedeAcceder;
+    @Override
+    public List<String> filtrarAccesibles(Collection<String> recursos) {
+        // La admisión se controla dentro de puedeAccederTodos
+        return ReglasControlUsuarios.filtrar(recursos, puedeAccederTodos(recursos));
     }
 }
\ No newline at end of file
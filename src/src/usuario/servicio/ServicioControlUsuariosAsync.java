@@ -0,0 +1,194 @@
+package usuario.servicio;
+
+import usuario.interfaces.*;
+import usuario.interfaces.IControlAdmision.Clase;
+import usuario.implementaciones.Futuros;
+import usuario.modelo.Usuario;
+import usuario.modelo.Rol;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Servicio principal no bloqueante - PRINCIPIOS DIP, ISP, SRP
+ * Comparte las reglas con ServicioControlUsuarios (ReglasControlUsuarios), pero
+ * cada operación encadena autorización, validación y persistencia como etapas
+ * de un CompletableFuture. Ningún hilo queda bloqueado esperando al repositorio
+ * o a la autenticación, por lo que pocos hilos pueden mantener miles de
+ * operaciones en curso.
+ *
+ * Los Future devueltos fallan con la excepción original (SecurityException,
+ * IllegalArgumentException o SobrecargaException), no con CompletionException.
+ * Con control de admisión, una operación ocupa su lugar hasta que su Future
+ * completa. La admisión nunca espera (intentarEntrar): si no hay lugar el Future
+ * falla en el acto, para no bloquear al hilo que llama (ej: un event loop).
+ * El hash de la contraseña (PBKDF2) se calcula en un Executor propio, nunca en
+ * el hilo que completa la consulta al repositorio.
+ */
+public class ServicioControlUsuariosAsync implements IOperacionesAdminAsync, IOperacionesUsuarioAsync, IOperacionesLecturaAsync {
+
+    // Logger para registrar eventos del sistema
+    private static final Logger logger = Logger.getLogger(ServicioControlUsuariosAsync.class.getName());
+
+    // Dependencias inyectadas (PRINCIPIO DIP)
+    private IAutenticacionAsync autenticacion;       // Para manejar autenticación
+    private IRepositorioUsuarioAsync repositorio;    // Para persistir datos
+    private IControlAdmision admision;               // Para rechazar operaciones bajo sobrecarga
+    private ReglasControlUsuarios reglas;            // Autorización y validación (solo CPU)
+    private Executor calculo;                        // Hilos para el trabajo de CPU costoso (hash)
+
+    /**
+     * Constructor con inyección de dependencias
+     * Usa la lógica de permisos propia de cada Rol
+     */
+    public ServicioControlUsuariosAsync(IAutenticacionAsync autenticacion,
+                                        IRepositorioUsuarioAsync repositorio,
+                                        IValidadorPassword validador) {
+        this(autenticacion, repositorio, validador, IPoliticaAcceso.POR_ROL);
+    }
+
+    public ServicioControlUsuariosAsync(IAutenticacionAsync autenticacion,
+                                        IRepositorioUsuarioAsync repositorio,
+                                        IValidadorPassword validador,
+                                        IPoliticaAcceso politica) {
+        // Sin hash no hay trabajo costoso: la validación corre en el mismo hilo
+        this(autenticacion, repositorio, validador, politica, IControlAdmision.SIN_LIMITE, null, Runnable::run);
+    }
+
+    /**
+     * Constructor con control de admisión y contraseñas hasheadas (hash null = texto plano)
+     * El control puede compartirse con los servicios bloqueantes
+     * @param calculo - Executor donde se calcula el hash de las contraseñas nuevas
+     *                  (ej: un pool acotado al número de núcleos)
+     */
+    public ServicioControlUsuariosAsync(IAutenticacionAsync autenticacion,
+                                        IRepositorioUsuarioAsync repositorio,
+                                        IValidadorPassword validador,
+                                        IPoliticaAcceso politica,
+                                        IControlAdmision admision,
+                                        IHashPassword hash,
+                                        Executor calculo) {
+        this.autenticacion = autenticacion;
+        this.repositorio = repositorio;
+        this.admision = admision;
+        this.reglas = new ReglasControlUsuarios(validador, politica, hash);
+        this.calculo = calculo;
+
+        logger.info("ServicioControlUsuariosAsync inicializado correctamente");
+    }
+
+    // === IMPLEMENTACIÓN DE IOperacionesAdminAsync ===
+
+    @Override
+    public CompletableFuture<Void> crearUsuario(Usuario usuario) {
+        return admitir(Clase.ADMIN, () -> autenticacion.obtenerUsuarioActual().thenCompose(actual -> {
+            // Etapa 1: solo administradores (una excepción aquí hace fallar el Future)
+            reglas.autorizarCreacion(actual, usuario);
+            // Etapa 2: el email no debe estar registrado y la contraseña debe cumplir los requisitos;
+            // el hash se calcula en el Executor de cálculo, no en el hilo del repositorio
+            return repositorio.existeEmail(usuario.getEmail())
+                    .thenApplyAsync(existe -> {
+                        reglas.validarNuevoUsuario(usuario, existe);
+                        return reglas.paraGuardar(usuario);
+                    }, calculo)
+                    // Etapa 3: persistencia
+                    .thenCompose(repositorio::guardar)
+                    .thenRun(() -> reglas.registrarCreacion(actual, usuario));
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> eliminarUsuario(String id) {
+        return admitir(Clase.ADMIN, () -> autenticacion.obtenerUsuarioActual().thenAccept(actual -> {
+            reglas.autorizarEliminacion(actual, id);
+            // Aquí iría la lógica de eliminación real
+            reglas.registrarEliminacion(actual, id);
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> cambiarRolUsuario(String id, Rol nuevoRol) {
+        return admitir(Clase.ADMIN, () -> autenticacion.obtenerUsuarioActual().thenAccept(actual -> {
+            reglas.autorizarCambioRol(actual, id, nuevoRol);
+            // Aquí iría la lógica de cambio de rol real
+            reglas.registrarCambioRol(actual, id, nuevoRol);
+        }));
+    }
+
+    // === IMPLEMENTACIÓN DE IOperacionesUsuarioAsync ===
+
+    @Override
+    public CompletableFuture<Void> cambiarPassword(String nuevaPassword) {
+        return admitir(Clase.USUARIO, () -> autenticacion.obtenerUsuarioActual().thenAccept(actual -> {
+            reglas.autorizarCambioPassword(actual, nuevaPassword);
+            // Simula actualización de contraseña
+            reglas.registrarCambioPassword(actual);
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> actualizarPerfil(String nombre, String email) {
+        return admitir(Clase.USUARIO, () -> autenticacion.obtenerUsuarioActual().thenAccept(actual -> {
+            reglas.autorizarActualizacionPerfil(actual);
+            // Aquí iría la lógica de actualización real
+            reglas.registrarActualizacionPerfil(actual, nombre, email);
+        }));
+    }
+
+    // === IMPLEMENTACIÓN DE IOperacionesLecturaAsync ===
+
+    @Override
+    public CompletableFuture<Usuario> verPerfil() {
+        return admitir(Clase.LECTURA, () -> autenticacion.obtenerUsuarioActual().thenApply(actual -> {
+            reglas.registrarConsultaPerfil(actual);
+            return actual;
+        }));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> puedeAcceder(String recurso) {
+        return admitir(Clase.LECTURA, () -> autenticacion.obtenerUsuarioActual()
+                .thenApply(actual -> reglas.puedeAcceder(actual, recurso)));
+    }
+
+    @Override
+    public CompletableFuture<BitSet> puedeAccederTodos(Collection<String> recursos) {
+        // Resuelve el usuario una sola vez para todos los recursos
+        return admitir(Clase.LECTURA, () -> autenticacion.obtenerUsuarioActual()
+                .thenApply(actual -> reglas.puedeAccederTodos(actual, recursos)));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> filtrarAccesibles(Collection<String> recursos) {
+        // La admisión se controla dentro de puedeAccederTodos
+        return Futuros.desenvolver(puedeAccederTodos(recursos)
+                .thenApply(permitidos -> ReglasControlUsuarios.filtrar(recursos, permitidos)));
+    }
+
+    // === ADMISIÓN ===
+
+    /**
+     * Ejecuta una operación si el control de admisión la acepta
+     * El lugar se libera al completar el Future, y el error se entrega sin envolver
+     */
+    private <T> CompletableFuture<T> admitir(Clase clase, Supplier<CompletableFuture<T>> operacion) {
+        long entrada;
+        try {
+            entrada = admision.intentarEntrar(clase);    // Nunca bloquea al hilo que llama
+        } catch (SobrecargaException e) {
+            return CompletableFuture.failedFuture(e);    // Rechazo inmediato, sin iniciar la operación
+        }
+
+        CompletableFuture<T> futuro;
+        try {
+            futuro = operacion.get();
+        } catch (RuntimeException e) {
+            futuro = CompletableFuture.failedFuture(e);
+        }
+        return Futuros.desenvolver(futuro.whenComplete((valor, error) -> admision.salir(clase, entrada)));
+    }
+}
@@ -0,0 +1,418 @@
+package usuario.servicio;
+
+import usuario.interfaces.IHashPassword;
+import usuario.interfaces.IListadoUsuarios;
+import usuario.interfaces.IValidadorPassword;
+import usuario.modelo.EstadisticasUsuarios;
+import usuario.modelo.Usuario;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Servicio de reportes y exportación - PRINCIPIOS SRP y DIP
+ * SRP: Solo calcula agregados y exporta usuarios
+ * DIP: Depende de IListadoUsuarios, IValidadorPassword e IHashPassword
+ *
+ * El listado se divide en particiones que se procesan en paralelo con fork-join;
+ * la exportación escribe cada partición por bloques en un canal NIO,
+ * sin reunir todos los usuarios en memoria.
+ *
+ * Los emails duplicados se buscan aparte, repartiendo los emails en cubetas
+ * según su hash: cada cubeta recorre el listado y solo retiene sus propios
+ * emails en un conjunto local, así la memoria queda acotada por el tamaño de
+ * la cubeta (por la cantidad de cubetas en paralelo) y no por el total.
+ */
+public class ServicioReportes {
+
+    private static final Logger logger = Logger.getLogger(ServicioReportes.class.getName());
+
+    private static final long UMBRAL_PARTICION = 1_024;    // Usuarios por tarea hoja
+    private static final int TAMANO_BLOQUE = 64 * 1024;     // Bytes acumulados antes de escribir
+    private static final long EMAILS_POR_CUBETA = 1 << 17;  // Emails retenidos a la vez por cubeta
+
+    /**
+     * Formatos de exportación soportados
+     */
+    public enum Formato { CSV, JSONL }
+
+    // Dependencias inyectadas (PRINCIPIO DIP)
+    private IListadoUsuarios listado;         // Fuente de usuarios a recorrer
+    private IValidadorPassword validador;     // Para medir el cumplimiento de la política
+    private IHashPassword hash;               // Para reconocer las contraseñas ya hasheadas
+    private ForkJoinPool pool;                // Hilos que procesan las particiones
+
+    /**
+     * Constructor con inyección de dependencias, usa el pool común de fork-join
+     * @param hash - Esquema de hash de las contraseñas, o null si se guardan en texto plano
+     */
+    public ServicioReportes(IListadoUsuarios listado, IValidadorPassword validador, IHashPassword hash) {
+        this(listado, validador, hash, ForkJoinPool.commonPool());
+    }
+
+    public ServicioReportes(IListadoUsuarios listado, IValidadorPassword validador, IHashPassword hash,
+                            ForkJoinPool pool) {
+        this.listado = listado;
+        this.validador = validador;
+        this.hash = hash;
+        this.pool = pool;
+    }
+
+    // === ESTADÍSTICAS ===
+
+    /**
+     * Calcula conteos por rol, cumplimiento de la política de contraseñas
+     * y emails duplicados (sin distinguir mayúsculas)
+     * La política solo se puede evaluar sobre contraseñas en texto plano:
+     * las hasheadas se informan aparte, como no verificables
+     */
+    public EstadisticasUsuarios calcularEstadisticas() {
+        // Fase 1: conteos por partición, sin estado compartido entre tareas
+        Acumulador total = pool.invoke(new TareaEstadisticas(listado.recorrer()));
+
+        // Fase 2: duplicados por cubetas de hash, con tantas cubetas como haga falta
+        // para no retener más de EMAILS_POR_CUBETA emails en cada una
+        int cubetas = (int) Math.max(1, (total.usuarios + EMAILS_POR_CUBETA - 1) / EMAILS_POR_CUBETA);
+        Set<String> duplicados = pool.invoke(new TareaDuplicados(0, cubetas, cubetas));
+
+        EstadisticasUsuarios estadisticas = new EstadisticasUsuarios(total.usuarios,
+                new TreeMap<>(total.porRol), total.cumplenPolitica, total.sinVerificar, duplicados);
+        logger.info(String.format("Estadísticas calculadas: %s", estadisticas));
+        return estadisticas;
+    }
+
+    /**
+     * Resultados parciales de una partición
+     */
+    private static final class Acumulador {
+        private long usuarios;
+        private long cumplenPolitica;
+        private long sinVerificar;    // Contraseñas hasheadas: no se puede evaluar la política
+        private final Map<String, Long> porRol = new HashMap<>();
+
+        private void combinar(Acumulador otro) {
+            usuarios += otro.usuarios;
+            cumplenPolitica += otro.cumplenPolitica;
+            sinVerificar += otro.sinVerificar;
+            otro.porRol.forEach((rol, cantidad) -> porRol.merge(rol, cantidad, Long::sum));
+        }
+    }
+
+    /**
+     * Tarea fork-join que divide el listado hasta el umbral y acumula cada parte
+     */
+    private final class TareaEstadisticas extends RecursiveTask<Acumulador> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Spliterator<Usuario> particion;
+
+        private TareaEstadisticas(Spliterator<Usuario> particion) {
+            this.particion = particion;
+        }
+
+        @Override
+        protected Acumulador compute() {
+            // Separa mitades en subtareas mientras la partición sea grande
+            List<TareaEstadisticas> subtareas = new ArrayList<>();
+            Spliterator<Usuario> mitad;
+            while (particion.estimateSize() > UMBRAL_PARTICION && (mitad = particion.trySplit()) != null) {
+                TareaEstadisticas subtarea = new TareaEstadisticas(mitad);
+                subtarea.fork();
+                subtareas.add(subtarea);
+            }
+
+            // Procesa lo que queda en este mismo hilo
+            Acumulador acumulador = new Acumulador();
+            particion.forEachRemaining(usuario -> {
+                acumulador.usuarios++;
+                acumulador.porRol.merge(usuario.getRol().getNombre(), 1L, Long::sum);
+                if (hash != null && hash.esHash(usuario.getPassword())) {
+                    acumulador.sinVerificar++;    // El hash siempre "cumpliría" largo, mayúsculas y dígitos
+                } else if (validador.validar(usuario.getPassword())) {
+                    acumulador.cumplenPolitica++;
+                }
+            });
+
+            for (TareaEstadisticas subtarea : subtareas) {
+                acumulador.combinar(subtarea.join());
+            }
+            return acumulador;
+        }
+    }
+
+    /**
+     * Tarea fork-join que busca duplicados en un rango de cubetas
+     * Divide el rango hasta llegar a una sola cubeta, que recorre todo el listado
+     */
+    private final class TareaDuplicados extends RecursiveTask<Set<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int desde;      // Primera cubeta del rango
+        private final int hasta;      // Cubeta siguiente a la última
+        private final int cubetas;    // Cantidad total de cubetas
+
+        private TareaDuplicados(int desde, int hasta, int cubetas) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.cubetas = cubetas;
+        }
+
+        @Override
+        protected Set<String> compute() {
+            if (hasta - desde > 1) {
+                int medio = (desde + hasta) >>> 1;
+                TareaDuplicados derecha = new TareaDuplicados(medio, hasta, cubetas);
+                derecha.fork();
+                Set<String> duplicados = new TareaDuplicados(desde, medio, cubetas).compute();
+                duplicados.addAll(derecha.join());
+                return duplicados;
+            }
+
+            // Una cubeta: solo se retienen los emails cuyo hash cae en ella
+            Set<String> vistos = new HashSet<>();
+            Set<String> duplicados = new TreeSet<>();
+            listado.recorrer().forEachRemaining(usuario -> {
+                if (cubeta(usuario.getEmail()) == desde) {
+                    String email = usuario.getEmail().toLowerCase(Locale.ROOT);    // Independiente del idioma del sistema
+                    if (!vistos.add(email)) {
+                        duplicados.add(email);
+                    }
+                }
+            });
+            return duplicados;
+        }
+
+        /**
+         * Cubeta de un email; igual para emails que solo difieren en mayúsculas
+         */
+        private int cubeta(String email) {
+            int hash = hashMinusculas(email);
+            return Math.floorMod(hash ^ (hash >>> 16), cubetas);
+        }
+    }
+
+    /**
+     * Igual a email.toLowerCase(Locale.ROOT).hashCode(), sin crear la cadena
+     * cuando el email es ASCII (el caso habitual)
+     */
+    private static int hashMinusculas(String email) {
+        int hash = 0;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c >= 0x80) {
+                return email.toLowerCase(Locale.ROOT).hashCode();    // Casos especiales de Unicode
+            }
+            hash = 31 * hash + (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+        }
+        return hash;
+    }
+
+    // === EXPORTACIÓN ===
+
+    /**
+     * Exporta todos los usuarios a un archivo (se sobrescribe si existe)
+     * @return Cantidad de usuarios exportados
+     */
+    public long exportar(Path destino, Formato formato) throws IOException {
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return exportar(canal, formato);
+        }
+    }
+
+    /**
+     * Exporta todos los usuarios a un canal; el orden de las líneas no está garantizado
+     * Las contraseñas nunca se exportan
+     * @return Cantidad de usuarios exportados
+     */
+    public long exportar(WritableByteChannel canal, Formato formato) throws IOException {
+        if (formato == Formato.CSV) {
+            escribir(canal, ByteBuffer.wrap("id,nombre,email,rol\n".getBytes(StandardCharsets.UTF_8)));
+        }
+        try {
+            long exportados = pool.invoke(new TareaExportacion(listado.recorrer(), canal, formato, new AtomicBoolean()));
+            logger.info(String.format("Exportados %d usuarios en formato %s", exportados, formato));
+            return exportados;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();    // Propaga el error de escritura original
+        }
+    }
+
+    /**
+     * Escribe un bloque completo; sincronizado para que los bloques de
+     * distintas particiones no se mezclen en el canal
+     */
+    private static void escribir(WritableByteChannel canal, ByteBuffer bloque) throws IOException {
+        synchronized (canal) {
+            while (bloque.hasRemaining()) {
+                canal.write(bloque);
+            }
+        }
+    }
+
+    /**
+     * Tarea fork-join que exporta una partición por bloques
+     */
+    private static final class TareaExportacion extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Spliterator<Usuario> particion;
+        private final transient WritableByteChannel canal;
+        private final Formato formato;
+        private final AtomicBoolean fallo;    // Compartido: una partición falló y las demás deben parar
+
+        private TareaExportacion(Spliterator<Usuario> particion, WritableByteChannel canal, Formato formato,
+                                 AtomicBoolean fallo) {
+            this.particion = particion;
+            this.canal = canal;
+            this.formato = formato;
+            this.fallo = fallo;
+        }
+
+        @Override
+        protected Long compute() {
+            if (fallo.get()) {
+                return 0L;    // La exportación ya falló: no se escribe nada más
+            }
+            List<TareaExportacion> subtareas = new ArrayList<>();
+            Spliterator<Usuario> mitad;
+            while (particion.estimateSize() > UMBRAL_PARTICION && (mitad = particion.trySplit()) != null) {
+                TareaExportacion subtarea = new TareaExportacion(mitad, canal, formato, fallo);
+                subtarea.fork();
+                subtareas.add(subtarea);
+            }
+
+            // Bloque propio de la partición; se vacía en el canal al llenarse
+            ByteBuffer bloque = ByteBuffer.allocate(TAMANO_BLOQUE);
+            StringBuilder linea = new StringBuilder(128);
+            long exportados = 0;
+            RuntimeException error = null;
+            try {
+                while (!fallo.get() && particion.tryAdvance(usuario -> {
+                    linea.setLength(0);
+                    if (formato == Formato.CSV) {
+                        lineaCsv(linea, usuario);
+                    } else {
+                        lineaJson(linea, usuario);
+                    }
+                    agregar(bloque, linea.toString().getBytes(StandardCharsets.UTF_8));
+                })) {
+                    exportados++;    // De a un usuario, para notar enseguida el fallo de otra partición
+                }
+                if (!fallo.get()) {
+                    // Tras un fallo no se vacía el bloque parcial: la exportación ya se abandonó
+                    bloque.flip();
+                    escribir(canal, bloque);
+                }
+            } catch (IOException e) {
+                error = new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            if (error != null) {
+                fallo.set(true);
+            }
+
+            // Ante un error no se termina hasta que ninguna subtarea pueda seguir escribiendo:
+            // quien llamó cierra el canal apenas recibe la excepción (cancel() no sirve, no
+            // detiene una tarea en curso)
+            long total = exportados;
+            for (TareaExportacion subtarea : subtareas) {
+                if (error != null) {
+                    subtarea.quietlyJoin();    // Las pendientes terminan enseguida al ver el fallo
+                    continue;
+                }
+                try {
+                    total += subtarea.join();
+                } catch (RuntimeException e) {
+                    error = e;
+                    fallo.set(true);
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+            return total;
+        }
+
+        /**
+         * Agrega bytes al bloque, escribiéndolo en el canal si no caben
+         */
+        private void agregar(ByteBuffer bloque, byte[] bytes) {
+            if (fallo.get()) {
+                return;    // Otra partición falló: no se escribe nada más
+            }
+            try {
+                if (bloque.remaining() < bytes.length) {
+                    bloque.flip();
+                    escribir(canal, bloque);
+                    bloque.clear();
+                }
+                if (bytes.length > bloque.capacity()) {
+                    escribir(canal, ByteBuffer.wrap(bytes));    // Línea más grande que el bloque
+                } else {
+                    bloque.put(bytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void lineaCsv(StringBuilder linea, Usuario usuario) {
+            campoCsv(linea, usuario.getId()).append(',');
+            campoCsv(linea, usuario.getNombre()).append(',');
+            campoCsv(linea, usuario.getEmail()).append(',');
+            campoCsv(linea, usuario.getRol().getNombre()).append('\n');
+        }
+
+        private static StringBuilder campoCsv(StringBuilder linea, String valor) {
+            // Solo se entrecomillan los valores con caracteres especiales
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return linea.append(valor);
+            }
+            return linea.append('"').append(valor.replace("\"", "\"\"")).append('"');
+        }
+
+        private static void lineaJson(StringBuilder linea, Usuario usuario) {
+            linea.append("{\"id\":");
+            campoJson(linea, usuario.getId()).append(",\"nombre\":");
+            campoJson(linea, usuario.getNombre()).append(",\"email\":");
+            campoJson(linea, usuario.getEmail()).append(",\"rol\":");
+            campoJson(linea, usuario.getRol().getNombre()).append("}\n");
+        }
+
+        private static StringBuilder campoJson(StringBuilder linea, String valor) {
+            linea.append('"');
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                if (c == '"' || c == '\\') {
+                    linea.append('\\').append(c);
+                } else if (c < 0x20) {
+                    linea.append(String.format("\\u%04x", (int) c));    // Caracteres de control
+                } else {
+                    linea.append(c);
+                }
+            }
+            return linea.append('"');
+        }
+    }
+}